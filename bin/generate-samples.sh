@@ -43,6 +43,9 @@ separate the single config file from the generator arguments.
 For example:
     $0 bin/configs/java-vertx.yaml -- --global-property debugModels=true
 
+You may check that the samples are up-to-date, without writing them, with:
+    BATCH_OPTS=--verify $0
+
 "
 
 echo "$header"
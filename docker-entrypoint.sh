@@ -8,6 +8,15 @@ JAVA_OPTS=${JAVA_OPTS:-"-DloggerPath=conf/log4j.properties"}
 
 cli="${GEN_DIR}/modules/openapi-generator-cli"
 codegen="${cli}/target/openapi-generator-cli.jar"
+# class-data sharing archive written by modules/openapi-generator-cli/src/cds/train.sh
+archive="${cli}/target/openapi-generator-cli.jsa"
+
+# Use the archive unless it's older than the jar (it would be rejected) or one is configured already.
+use_archive() {
+    if [[ -f "${archive}" && ! "${codegen}" -nt "${archive}" && "${JAVA_OPTS}" != *SharedArchiveFile* ]]; then
+        JAVA_OPTS="${JAVA_OPTS} -XX:SharedArchiveFile=${archive} -Xshare:auto"
+    fi
+}
 
 # We code in a list of commands here as source processing is potentially buggy (requires undocumented conventional use of annotations).
 # A list of known commands helps us determine if we should compile CLI. There's an edge-case where a new command not added to this
@@ -22,6 +31,8 @@ if [ $# == 0 ]; then
     exit
 fi
 
+use_archive
+
 # if CLI jar exists, check $1 against completions available in the CLI
 if [[ -f "${codegen}" && -n "$(java ${JAVA_OPTS} -jar "${codegen}" completion | grep "^$1\$" )" ]]; then
     command=$1
@@ -30,7 +41,8 @@ if [[ -f "${codegen}" && -n "$(java ${JAVA_OPTS} -jar "${codegen}" completion |
 elif [[ -n "$(echo $commands | tr ',' '\n' | grep "^$1\$" )" ]]; then
     # If CLI jar does not exist, and $1 is a known CLI command, build the CLI jar and run that command.
     if [[ ! -f "${codegen}" ]]; then
-        (cd "${GEN_DIR}" && exec mvn -am -pl "modules/openapi-generator-cli" -Duser.home=$(dirname $MAVEN_CONFIG) package)
+        (cd "${GEN_DIR}" && exec mvn -am -pl "modules/openapi-generator-cli" -Pcds -Duser.home=$(dirname $MAVEN_CONFIG) package)
+        use_archive
     fi
     command=$1
     shift
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+#
+# Compares the wall-clock time of short CLI runs without and with the class-data sharing archive
+# written by train.sh.
+#
+# Usage: benchmark.sh <openapi-generator-cli.jar> [<archive>] [<runs>]
+
+set -euo pipefail
+
+jar=$1
+archive=${2:-${jar%.jar}.jsa}
+runs=${3:-10}
+cds_dir="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+if [[ ! -f "${archive}" ]]; then
+    echo "No archive at ${archive}, run train.sh first." >&2
+    exit 1
+fi
+
+work=$(mktemp -d)
+trap 'rm -rf "${work}"' EXIT
+
+# average wall-clock time of a command in milliseconds
+measure() {
+    local start end total=0
+    for ((i = 0; i < runs; i++)); do
+        start=$(date +%s%N)
+        "$@" > /dev/null 2>&1
+        end=$(date +%s%N)
+        total=$((total + (end - start) / 1000000))
+    done
+    echo $((total / runs))
+}
+
+report() {
+    local name=$1
+    shift
+    local off on
+    off=$(measure java -Xshare:off "$@")
+    on=$(measure java -XX:SharedArchiveFile="${archive}" "$@")
+    printf "%-32s %8d ms %8d ms\n" "${name}" "${off}" "${on}"
+}
+
+printf "%-32s %11s %11s\n" "command (${runs} runs)" "no CDS" "AppCDS"
+report "version" -jar "${jar}" version
+report "validate" -jar "${jar}" validate -i "${cds_dir}/training.yaml"
+report "generate -g java" -jar "${jar}" generate -g java -i "${cds_dir}/training.yaml" -o "${work}/java"
+report "generate -g typescript-axios" -jar "${jar}" generate -g typescript-axios -i "${cds_dir}/training.yaml" -o "${work}/ts"
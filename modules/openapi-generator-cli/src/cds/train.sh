@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+#
+# Writes a dynamic class-data sharing (AppCDS) archive for the CLI jar, from a training run generating
+# the training spec with a representative set of generators in one JVM.
+#
+# The archive can only be used by the JVM (same version and vendor) which wrote it, with the same jar:
+# run this with the Java runtime which will run the CLI, after the jar is built.
+#
+# Usage: train.sh <openapi-generator-cli.jar> [<archive>]
+#   <archive> defaults to the jar path with a .jsa extension.
+
+set -euo pipefail
+
+jar=$1
+archive=${2:-${jar%.jar}.jsa}
+cds_dir="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+generators="java spring typescript-axios typescript-angular python go csharp kotlin php rust html2 openapi"
+
+work=$(mktemp -d)
+trap 'rm -rf "${work}"' EXIT
+
+configs=()
+for generator in ${generators}; do
+    cat > "${work}/${generator}.yaml" <<CONFIG
+generatorName: ${generator}
+inputSpec: ${cds_dir}/training.yaml
+outputDir: ${work}/out/${generator}
+CONFIG
+    configs+=("${work}/${generator}.yaml")
+done
+
+rm -f "${archive}"
+java -XX:ArchiveClassesAtExit="${archive}" -Dlog.level=warn \
+    -jar "${jar}" batch --root-dir "${work}" "${configs[@]}" > "${work}/training.log" 2>&1 \
+    || { cat "${work}/training.log"; exit 1; }
+
+echo "Wrote ${archive}"
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.joran.spi.JoranException;
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+import org.openapitools.codegen.OpenAPIGenerator;
+import org.openapitools.codegen.config.CachingSpecLoader;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.SpecLoader;
+import org.openapitools.codegen.templating.MustacheEngineAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Long-lived generation process, listening on a loopback port. The {@code generate}, {@code validate} and
+ * {@code batch} commands of the CLI are forwarded to it by {@link DaemonClient} when one is running for the current
+ * directory, which saves the JVM startup, the loading of the generators and templates and the JIT warm-up on every
+ * invocation.
+ * <p>
+ * Relative paths (in the arguments and in configuration files) are resolved against the working directory of the
+ * daemon, so a daemon only serves clients started from the directory it was started from. Likewise, it only serves
+ * clients started with the same system properties, environment variables and classpath, which commands depend on as
+ * well. Requests are processed one at a time, as the output of a command is forwarded by replacing
+ * {@link System#out} and {@link System#err}.
+ * <p>
+ * Besides the warm JVM, commands share the specifications parsed by earlier commands, as long as the files they are
+ * made of are unchanged, and the compiled built-in templates of the generators.
+ */
+@SuppressWarnings({"unused", "java:S106"})
+@Command(name = "daemon", description = "Start a generation daemon serving the generate, validate and batch commands run from the current directory")
+public class Daemon extends OpenApiGeneratorCommand {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Daemon.class);
+
+    static final Set<String> FORWARDED_COMMANDS = new HashSet<>(Arrays.asList("generate", "validate", "batch"));
+
+    // request: token, working directory, environment, argument count (or STOP), arguments
+    static final int STOP = -1;
+    // response frames
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+    static final byte REJECTED = 4;
+
+    private static final int REQUEST_TIMEOUT_MILLIS = 10000;
+
+    static final String PORT = "port";
+    static final String TOKEN = "token";
+    static final String DIRECTORY = "directory";
+
+    private static volatile boolean serving;
+
+    private static final CachingSpecLoader SPEC_LOADER = new CachingSpecLoader();
+
+    @Option(name = {"--port"}, title = "port", description = "loopback port to listen on (default: any free port)")
+    private Integer port;
+
+    @Option(name = {"--stop"}, description = "stop the daemon serving the current directory")
+    private Boolean stop;
+
+    /**
+     * Thrown instead of exiting the JVM when a command ends with an exit status within the daemon.
+     */
+    static class ExitException extends RuntimeException {
+        private final int status;
+
+        ExitException(int status) {
+            super("exit " + status, null, false, false);
+            this.status = status;
+        }
+    }
+
+    static boolean isServing() {
+        return serving;
+    }
+
+    /**
+     * Returns the loader commands parse specifications with, which reuses the specifications parsed by earlier commands
+     * within the daemon.
+     */
+    static SpecLoader specLoader() {
+        return serving ? SPEC_LOADER : SpecLoader.DEFAULT;
+    }
+
+    @Override
+    public void execute() {
+        String directory = DaemonClient.workingDirectory();
+        if (Boolean.TRUE.equals(stop)) {
+            if (DaemonClient.stop(directory)) {
+                System.out.println("Stopped the daemon serving " + directory);
+            } else {
+                System.out.println("No daemon is serving " + directory);
+            }
+            return;
+        }
+
+        if (DaemonClient.isRunning(directory)) {
+            System.err.println("[error] A daemon is already serving " + directory);
+            exit(1);
+        }
+
+        Path stateFile = DaemonClient.stateFile(directory);
+        String token = newToken();
+        String environment = DaemonClient.environment();
+        try (ServerSocket server = new ServerSocket(port == null ? 0 : port, 50, InetAddress.getLoopbackAddress())) {
+            writeState(stateFile, server.getLocalPort(), token, directory);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteState(stateFile, token)));
+            serving = true;
+            MustacheEngineAdapter.setShareCompiledTemplates(true);
+            System.out.printf(Locale.ROOT, "Generation daemon serving %s on port %d%n", directory, server.getLocalPort());
+
+            boolean stopped = false;
+            while (!stopped) {
+                try (Socket socket = server.accept()) {
+                    stopped = handle(socket, token, directory, environment);
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to handle a request: {}", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to start the generation daemon", e);
+            exit(1);
+        } finally {
+            serving = false;
+            MustacheEngineAdapter.setShareCompiledTemplates(false);
+            deleteState(stateFile, token);
+        }
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @return true if the daemon was asked to stop
+     */
+    private boolean handle(Socket socket, String token, String directory, String environment) throws IOException {
+        // don't let a stalled client block the daemon, the command itself may take as long as it needs
+        socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        String clientToken = in.readUTF();
+        if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), clientToken.getBytes(StandardCharsets.UTF_8))) {
+            LOGGER.warn("Rejected a request with an invalid token");
+            return false;
+        }
+        String clientDirectory = in.readUTF();
+        String clientEnvironment = in.readUTF();
+        int argc = in.readInt();
+        if (argc == STOP) {
+            out.writeByte(EXIT);
+            out.writeInt(0);
+            out.flush();
+            return true;
+        }
+        String[] args = new String[argc];
+        for (int i = 0; i < argc; i++) {
+            args[i] = in.readUTF();
+        }
+        if (!directory.equals(clientDirectory) || !environment.equals(clientEnvironment)
+                || args.length == 0 || !FORWARDED_COMMANDS.contains(args[0])) {
+            out.writeByte(REJECTED);
+            out.flush();
+            return false;
+        }
+
+        socket.setSoTimeout(0);
+        int status = run(args, out);
+        out.writeByte(EXIT);
+        out.writeInt(status);
+        out.flush();
+        return false;
+    }
+
+    private static int run(String[] args, DataOutputStream out) {
+        PrintStream stdout = System.out;
+        PrintStream stderr = System.err;
+        System.setOut(new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDOUT)), true));
+        System.setErr(new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, STDERR)), true));
+        try {
+            return OpenAPIGenerator.run(args);
+        } catch (ExitException e) {
+            return e.status;
+        } catch (Throwable e) {
+            // what the JVM would print for an uncaught exception
+            System.err.print("Exception in thread \"main\" ");
+            e.printStackTrace(System.err);
+            return 1;
+        } finally {
+            System.out.flush();
+            System.err.flush();
+            System.setOut(stdout);
+            System.setErr(stderr);
+            // commands change global settings and the logging configuration (e.g. batch, --log-to-stderr)
+            GlobalSettings.reset();
+            resetLogging();
+        }
+    }
+
+    private static void resetLogging() {
+        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
+        lc.reset();
+        try {
+            new ContextInitializer(lc).autoConfig();
+        } catch (JoranException e) {
+            LOGGER.warn("Failed to reset the logging configuration: {}", e.getMessage());
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void writeState(Path stateFile, int port, String token, String directory) throws IOException {
+        Files.createDirectories(stateFile.getParent());
+        Files.deleteIfExists(stateFile);
+        Files.createFile(stateFile);
+        // the token grants running commands as the current user, keep it private where possible
+        File file = stateFile.toFile();
+        file.setReadable(false, false);
+        file.setWritable(false, false);
+        file.setReadable(true, true);
+        file.setWritable(true, true);
+
+        Properties state = new Properties();
+        state.setProperty(PORT, String.valueOf(port));
+        state.setProperty(TOKEN, token);
+        state.setProperty(DIRECTORY, directory);
+        try (Writer writer = Files.newBufferedWriter(stateFile, StandardCharsets.UTF_8)) {
+            state.store(writer, "OpenAPI Generator daemon");
+        }
+    }
+
+    private static void deleteState(Path stateFile, String token) {
+        try {
+            // unless it was replaced by another daemon
+            if (Files.isRegularFile(stateFile) && token.equals(DaemonClient.readToken(stateFile))) {
+                Files.delete(stateFile);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to delete {}: {}", stateFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Forwards the bytes written to it as frames of the given type.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            // both streams (and the threads of a batch) share the connection
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Forwards commands to the {@link Daemon} serving the current directory, if there's one.
+ * <p>
+ * A daemon registers itself in a state file under {@code ~/.openapi-generator/daemon}, named after the CLI version and
+ * the directory it serves. Commands are only run by a daemon started with the same environment, see
+ * {@link #environment()}. Setting the environment variable {@code OPENAPI_GENERATOR_NO_DAEMON} disables forwarding.
+ */
+@SuppressWarnings({"java:S106"})
+public final class DaemonClient {
+    static final String NO_DAEMON_ENV = "OPENAPI_GENERATOR_NO_DAEMON";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    // set by the shell for each command, without effect on the generation
+    private static final Set<String> VOLATILE_ENV = new HashSet<>(Arrays.asList("_", "OLDPWD", "SHLVL"));
+
+    private DaemonClient() {
+    }
+
+    /**
+     * Runs the command in the daemon serving the current directory.
+     *
+     * @param args the command line arguments
+     * @return the exit status of the command, or {@code null} if it wasn't run by a daemon and must be run locally
+     */
+    public static Integer forward(String[] args) {
+        // only computed when a daemon is running
+        return forward(args, DaemonClient::environment);
+    }
+
+    static Integer forward(String[] args, Supplier<String> environment) {
+        return forward(args, environment, System.out, System.err);
+    }
+
+    static Integer forward(String[] args, Supplier<String> environment, PrintStream stdout, PrintStream stderr) {
+        if (args.length == 0 || !Daemon.FORWARDED_COMMANDS.contains(args[0]) || System.getenv(NO_DAEMON_ENV) != null) {
+            return null;
+        }
+        String directory = workingDirectory();
+        Properties state = readState(directory);
+        if (state == null) {
+            return null;
+        }
+
+        boolean sent = false;
+        try (Socket socket = connect(state)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeUTF(state.getProperty(Daemon.TOKEN));
+            out.writeUTF(directory);
+            out.writeUTF(environment.get());
+            out.writeInt(args.length);
+            for (String arg : args) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+            sent = true;
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case Daemon.STDOUT:
+                        copyFrame(in, stdout);
+                        break;
+                    case Daemon.STDERR:
+                        copyFrame(in, stderr);
+                        break;
+                    case Daemon.EXIT:
+                        stdout.flush();
+                        stderr.flush();
+                        return in.readInt();
+                    case Daemon.REJECTED:
+                        // e.g. started with other system properties, environment variables or classpath
+                        return null;
+                    default:
+                        throw new IOException("Unexpected response from the daemon: " + type);
+                }
+            }
+        } catch (IOException e) {
+            if (!sent) {
+                // the daemon is gone (e.g. killed), run locally
+                return null;
+            }
+            stderr.printf(Locale.ROOT, "[error] Lost connection to the generation daemon: %s%n", e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Asks the daemon serving the directory to stop.
+     *
+     * @param directory the directory
+     * @return true if a daemon was stopped
+     */
+    static boolean stop(String directory) {
+        Properties state = readState(directory);
+        if (state == null) {
+            return false;
+        }
+        try (Socket socket = connect(state)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeUTF(state.getProperty(Daemon.TOKEN));
+            out.writeUTF(directory);
+            out.writeUTF(environment());
+            out.writeInt(Daemon.STOP);
+            out.flush();
+            return new DataInputStream(socket.getInputStream()).readByte() == Daemon.EXIT;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Determines whether a daemon is serving the directory.
+     *
+     * @param directory the directory
+     * @return true if a daemon answers
+     */
+    static boolean isRunning(String directory) {
+        Properties state = readState(directory);
+        if (state == null) {
+            return false;
+        }
+        try (Socket socket = connect(state)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeUTF(state.getProperty(Daemon.TOKEN));
+            out.writeUTF(directory);
+            out.writeUTF(environment());
+            // an empty command is rejected
+            out.writeInt(0);
+            out.flush();
+            return new DataInputStream(socket.getInputStream()).readByte() == Daemon.REJECTED;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static String readToken(Path stateFile) {
+        Properties state = load(stateFile);
+        return state == null ? null : state.getProperty(Daemon.TOKEN);
+    }
+
+    /**
+     * Describes what a command depends on besides its arguments and the working directory: the system properties set
+     * on the command line, the environment variables (e.g. {@code JAVA_POST_PROCESS_FILE}), the classpath (e.g. custom
+     * generators) and the Java runtime.
+     *
+     * @return the hex encoded SHA-256 hash of the environment of this JVM
+     */
+    static String environment() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(System.getProperty("java.home")).append('\n');
+        sb.append(System.getProperty("java.class.path")).append('\n');
+        ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .filter(argument -> argument.startsWith("-D"))
+                .sorted()
+                .forEach(argument -> sb.append(argument).append('\n'));
+        new TreeMap<>(System.getenv()).forEach((name, value) -> {
+            if (!VOLATILE_ENV.contains(name)) {
+                sb.append(name).append('=').append(value).append('\n');
+            }
+        });
+        return sha256(sb.toString());
+    }
+
+    static String workingDirectory() {
+        return Paths.get(System.getProperty("user.dir")).toAbsolutePath().normalize().toString();
+    }
+
+    static Path stateFile(String directory) {
+        String version = new BuildInfo().getVersion().replaceAll("[^A-Za-z0-9.-]", "_");
+        return Paths.get(System.getProperty("user.home"), ".openapi-generator", "daemon",
+                version + "-" + sha256(directory).substring(0, 16) + ".properties");
+    }
+
+    private static Properties readState(String directory) {
+        Properties state = load(stateFile(directory));
+        if (state == null || !directory.equals(state.getProperty(Daemon.DIRECTORY))
+                || state.getProperty(Daemon.TOKEN) == null || state.getProperty(Daemon.PORT) == null) {
+            return null;
+        }
+        return state;
+    }
+
+    private static Properties load(Path stateFile) {
+        if (!Files.isRegularFile(stateFile)) {
+            return null;
+        }
+        Properties state = new Properties();
+        try (Reader reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+            state.load(reader);
+        } catch (IOException e) {
+            return null;
+        }
+        return state;
+    }
+
+    private static Socket connect(Properties state) throws IOException {
+        Socket socket = new Socket();
+        try {
+            int port = Integer.parseInt(state.getProperty(Daemon.PORT));
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+            return socket;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
+    private static void copyFrame(DataInputStream in, PrintStream target) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        target.write(bytes, 0, bytes.length);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format(Locale.ROOT, "%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -331,6 +331,21 @@ public class Generate extends OpenApiGeneratorCommand {
             description = "Only write output files that have changed.")
     private Boolean minimalUpdate;
 
+    @Option(name = {"--memory-report"},
+            title = "Memory report",
+            description = "Log the heap usage after each phase of the generation (parse, normalize, models, APIs, ...).")
+    private Boolean memoryReport;
+
+    @Option(name = {"--memory-budget"},
+            title = "memory budget",
+            description = "Heap size (e.g. 512m or 2g) above which data no longer needed is released early during the generation. Implies --memory-report.")
+    private String memoryBudget;
+
+    @Option(name = {"--spec-snapshot-cache"},
+            title = "spec snapshot cache",
+            description = "Directory where the input spec is cached once parsed, normalized and flattened. Later runs with the same spec files and settings load it from there.")
+    private String specSnapshotCache;
+
     @Override
     public void execute() {
         if (StringUtils.isNotBlank(inputSpecRootDirectory)) {
@@ -357,7 +372,7 @@ public class Generate extends OpenApiGeneratorCommand {
             } else if (StringUtils.isEmpty(spec)) {
                 // if user doesn't pass configFile and does not pass spec, we can fail immediately because one of these two is required to run.
                 System.err.println("[error] Required option '-i' is missing");
-                System.exit(1);
+                exit(1);
             }
 
             // if a config file wasn't specified, or we were unable to read it
@@ -367,6 +382,10 @@ public class Generate extends OpenApiGeneratorCommand {
             }
         }
 
+        if (Daemon.isServing()) {
+            configurator.setSpecLoader(Daemon.specLoader());
+        }
+
         // now override with any specified parameters
         if (skipValidateSpec != null) {
             configurator.setValidateSpec(false);
@@ -384,7 +403,7 @@ public class Generate extends OpenApiGeneratorCommand {
             if (!spec.matches("^http(s)?://.*") && !new File(spec).exists()) {
                 System.err.println("[error] The spec file is not found: " + spec);
                 System.err.println("[error] Check the path of the OpenAPI spec and try again.");
-                System.exit(1);
+                exit(1);
             }
             configurator.setInputSpec(spec);
         }
@@ -502,6 +521,18 @@ public class Generate extends OpenApiGeneratorCommand {
             configurator.setStrictSpecBehavior(strictSpecBehavior);
         }
 
+        if (memoryReport != null) {
+            configurator.addGlobalProperty(CodegenConstants.MEMORY_REPORT, memoryReport.toString());
+        }
+
+        if (isNotEmpty(memoryBudget)) {
+            configurator.addGlobalProperty(CodegenConstants.MEMORY_BUDGET, memoryBudget);
+        }
+
+        if (isNotEmpty(specSnapshotCache)) {
+            configurator.addGlobalProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, specSnapshotCache);
+        }
+
         if (globalProperties != null && !globalProperties.isEmpty()) {
             applyGlobalPropertiesKvpList(globalProperties, configurator);
         }
@@ -536,7 +567,7 @@ public class Generate extends OpenApiGeneratorCommand {
         } catch (GeneratorNotFoundException e) {
             System.err.println(e.getMessage());
             System.err.println("[error] Check the spelling of the generator's name and try again.");
-            System.exit(1);
+            exit(1);
         }
     }
 }
@@ -18,6 +18,8 @@ package org.openapitools.codegen.cmd;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
@@ -34,20 +36,26 @@ import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.CodegenConfig;
 import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.VerifyingTemplateManager;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.DynamicSettings;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.utils.GenerationExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -60,6 +68,7 @@ import java.util.stream.Stream;
 public class GenerateBatch extends OpenApiGeneratorCommand {
     private static AtomicInteger failures = new AtomicInteger(0);
     private static AtomicInteger successes = new AtomicInteger(0);
+    private static AtomicInteger differing = new AtomicInteger(0);
     private final Logger LOGGER = LoggerFactory.getLogger(GenerateBatch.class);
 
     @Option(name = {"-v", "--verbose"}, description = "verbose mode")
@@ -86,6 +95,17 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
     @Option(name = {"--root-dir"}, description = "root directory used output/includes (includes can be overridden)")
     private String root;
 
+    @Option(name = {"--virtual-threads"}, description = "generate each config on its own virtual thread (Java 21+, a pool of --threads threads otherwise), "
+            + "with a timeout per config, the output of each config printed at once, and the remaining configs cancelled on --fail-fast")
+    private Boolean virtualThreads;
+
+    @Option(name = {"--config-timeout"}, description = "execution timeout of each config with --virtual-threads (minutes, defaults to --timeout)")
+    private Integer configTimeout;
+
+    @Option(name = {"--verify"}, description = "render each config in memory and compare it with the files in its output directory, "
+            + "reporting the files which differ, are missing or are no longer generated, without writing anything")
+    private Boolean verify;
+
     /**
      * When an object implementing interface <code>Runnable</code> is used
      * to create a thread, starting the thread causes the object's
@@ -99,9 +119,19 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
      */
     @Override
     public void execute() {
+        // the counters are static, reset them in case of a previous batch in this JVM (generation daemon)
+        failures.set(0);
+        successes.set(0);
+        differing.set(0);
+
         if (configs.size() < 1) {
             LOGGER.error("No configuration file inputs specified");
-            System.exit(1);
+            exit(1);
+        }
+
+        if (Boolean.TRUE.equals(verify) && Boolean.TRUE.equals(clean)) {
+            LOGGER.warn("--clean is ignored with --verify, which doesn't write to the output directories");
+            clean = false;
         }
 
         int cores = Runtime.getRuntime().availableProcessors();
@@ -140,17 +170,21 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         SimpleModule module = getCustomDeserializationModel(includesDir);
         List<CodegenConfigurator> configurators = configs.stream().map(config -> CodegenConfigurator.fromFile(config, module)).collect(Collectors.toList());
 
+        if (Boolean.TRUE.equals(virtualThreads)) {
+            executeInScope(configurators, rootDir, numThreads);
+            return;
+        }
+
         // it doesn't make sense to interleave INFO level logs, so limit these to only ERROR.
-        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
-        Stream.of(Logger.ROOT_LOGGER_NAME, "io.swagger", "org.openapitools")
-                .map(lc::getLogger)
-                .forEach(logger -> logger.setLevel(Level.ERROR));
+        setLogLevel(Level.ERROR);
 
         ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        // with --fail-fast, the first failure stops the batch: the configs which haven't started are skipped
+        Runnable onFailure = Boolean.TRUE.equals(failFast) ? executor::shutdownNow : null;
 
         // Execute each configurator on a separate pooled thread.
         configurators.forEach(configurator -> {
-            GenerationRunner runner = new GenerationRunner(configurator, rootDir, Boolean.TRUE.equals(failFast), Boolean.TRUE.equals(clean));
+            GenerationRunner runner = new GenerationRunner(configurator, rootDir, onFailure, Boolean.TRUE.equals(clean), Boolean.TRUE.equals(verify));
             executor.execute(runner);
         });
 
@@ -161,15 +195,18 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
             if (timeout == null) timeout = 10;
             int awaitFor = Math.min(Math.max(timeout, 1), 30);
 
-            executor.awaitTermination(awaitFor, TimeUnit.MINUTES);
+            if (!executor.awaitTermination(awaitFor, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+                System.err.println(String.format(Locale.ROOT, "[FAIL] Batch generation timed out after %d minutes", awaitFor));
+            }
 
-            int failCount = failures.intValue();
-            if (failCount > 0) {
-                System.err.println(String.format(Locale.ROOT, "[FAIL] Completed with %d failures, %d successes", failCount, successes.intValue()));
-                System.exit(1);
-            } else {
-                System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch generation finished %d generators successfully.", successes.intValue()));
+            // the configs which didn't complete (skipped or timed out) count as failures
+            int incomplete = configurators.size() - successes.intValue() - failures.intValue();
+            if (incomplete > 0) {
+                failures.addAndGet(incomplete);
             }
+
+            printSummary();
         } catch (InterruptedException e) {
             e.printStackTrace();
             // re-interrupt
@@ -177,17 +214,117 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
         }
     }
 
+    private static void setLogLevel(Level level) {
+        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Stream.of(Logger.ROOT_LOGGER_NAME, "io.swagger", "org.openapitools")
+                .map(lc::getLogger)
+                .forEach(logger -> logger.setLevel(level));
+    }
+
+    /**
+     * Generates each config as a task of a {@link GenerationExecutor.Scope}: each config has its own timeout, its output
+     * and logs are buffered and printed at once when it completes, and with --fail-fast the first failure cancels the
+     * configs still running. At most as many configs as there are cores are parsed and generated at a time, and the time
+     * a config waits for a core doesn't count towards its timeout.
+     */
+    private void executeInScope(List<CodegenConfigurator> configurators, Path rootDir, int numThreads) {
+        boolean stopOnFailure = Boolean.TRUE.equals(failFast);
+        int minutes = Math.max(configTimeout != null ? configTimeout : timeout != null ? timeout : 10, 1);
+        Duration perConfig = Duration.ofMinutes(minutes);
+
+        // the logs of a config are printed along with it, only limit them to warnings unless verbose
+        if (!Boolean.TRUE.equals(verbose)) {
+            setLogLevel(Level.WARN);
+        }
+        Appender<ILoggingEvent> appender = TaskOutput.installAppender();
+
+        List<TaskOutput> outputs = new ArrayList<>();
+        List<GenerationExecutor.Subtask<Void>> subtasks = new ArrayList<>();
+        try (GenerationExecutor executor = GenerationExecutor.create(true, numThreads);
+             GenerationExecutor.Scope<Void> scope = executor.scope(stopOnFailure)) {
+            System.out.printf(Locale.ROOT, "Batch generation of %d configs on %s.%n", configurators.size(),
+                    executor.usesVirtualThreads() ? "virtual threads" : numThreads + " threads");
+
+            for (int i = 0; i < configurators.size(); i++) {
+                String label = configs.get(i);
+                TaskOutput output = new TaskOutput(i + ":" + label);
+                GenerationRunner runner = new GenerationRunner(configurators.get(i), rootDir, null, Boolean.TRUE.equals(clean), Boolean.TRUE.equals(verify));
+                outputs.add(output);
+                subtasks.add(scope.fork(() -> output.capture(() -> {
+                    try {
+                        runner.generate(output.stream(), label, executor);
+                    } catch (Exception | Error e) {
+                        runner.printFailure(output.stream(), label, e);
+                        output.flush(System.err, null);
+                        throw e;
+                    }
+                    output.flush(System.out, null);
+                    return null;
+                }), perConfig));
+            }
+
+            scope.join();
+
+            for (int i = 0; i < subtasks.size(); i++) {
+                GenerationExecutor.Subtask<Void> subtask = subtasks.get(i);
+                switch (subtask.state()) {
+                    case SUCCESS:
+                        successes.incrementAndGet();
+                        break;
+                    case TIMED_OUT:
+                        failures.incrementAndGet();
+                        outputs.get(i).flush(System.err, String.format(Locale.ROOT, "[%s] Generation timed out after %d minutes", configs.get(i), minutes));
+                        break;
+                    case CANCELLED:
+                        failures.incrementAndGet();
+                        outputs.get(i).flush(System.err, String.format(Locale.ROOT, "[%s] Generation cancelled after a failure (--fail-fast)", configs.get(i)));
+                        break;
+                    default:
+                        failures.incrementAndGet();
+                        break;
+                }
+            }
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            // re-interrupt
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            TaskOutput.detachAppender(appender);
+        }
+
+        printSummary();
+    }
+
+    private void printSummary() {
+        int failCount = failures.intValue();
+        if (failCount > 0) {
+            System.err.println(String.format(Locale.ROOT, "[FAIL] Completed with %d failures, %d successes", failCount, successes.intValue()));
+            exit(1);
+        } else if (differing.intValue() > 0) {
+            System.err.println(String.format(Locale.ROOT, "[FAIL] %d of %d generators differ from their output directories", differing.intValue(), successes.intValue()));
+            exit(1);
+        } else if (Boolean.TRUE.equals(verify)) {
+            System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch verification found the output of %d generators up-to-date.", successes.intValue()));
+        } else {
+            System.out.println(String.format(Locale.ROOT, "[SUCCESS] Batch generation finished %d generators successfully.", successes.intValue()));
+        }
+    }
+
     private static class GenerationRunner implements Runnable {
         private final CodegenConfigurator configurator;
         private final Path rootDir;
-        private final boolean exitOnError;
+        private final Runnable onFailure;
         private final boolean clean;
+        private final boolean verify;
+        private volatile String name;
 
-        private GenerationRunner(CodegenConfigurator configurator, Path rootDir, boolean failFast, boolean clean) {
+        private GenerationRunner(CodegenConfigurator configurator, Path rootDir, Runnable onFailure, boolean clean, boolean verify) {
             this.configurator = configurator;
             this.rootDir = rootDir;
-            this.exitOnError = failFast;
+            this.onFailure = onFailure;
             this.clean = clean;
+            this.verify = verify;
         }
 
         /**
@@ -203,11 +340,40 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
          */
         @Override
         public void run() {
-            String name = null;
+            String label = Thread.currentThread().getName();
+            try {
+                generate(System.out, label, null);
+                successes.incrementAndGet();
+            } catch (Throwable e) {
+                failures.incrementAndGet();
+                printFailure(System.err, label, e);
+                // rather than exiting from this thread, which the generation daemon can't report, the summary does
+                if (onFailure != null) {
+                    onFailure.run();
+                }
+            }
+        }
+
+        /**
+         * Generates the config, printing the progress to the given stream. With an executor, parsing the spec and the
+         * generation are run as a CPU-bound stage of it, so that no more specs than there are cores are held in memory.
+         */
+        private void generate(PrintStream out, String label, GenerationExecutor executor) throws Exception {
+            if (executor == null) {
+                generate(out, label);
+            } else {
+                executor.cpuBound(() -> {
+                    generate(out, label);
+                    return null;
+                });
+            }
+        }
+
+        private void generate(PrintStream out, String label) throws Exception {
             try {
                 GlobalSettings.reset();
 
-                ClientOptInput opts = configurator.toClientOptInput();
+                ClientOptInput opts = configurator.setSpecLoader(Daemon.specLoader()).toClientOptInput();
                 CodegenConfig config = opts.getConfig();
                 name = config.getName();
 
@@ -216,36 +382,52 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                 config.setOutputDir(updated.toString());
 
                 if (this.clean) {
-                    cleanPreviousFiles(name, updated);
+                    cleanPreviousFiles(out, label, name, updated);
                 }
 
-                System.out.printf(Locale.ROOT, "[%s] Generating %s (outputs to %s)…%n", Thread.currentThread().getName(), name, updated.toString());
+                out.printf(Locale.ROOT, "[%s] %s %s (outputs to %s)…%n", label, verify ? "Verifying" : "Generating", name, updated.toString());
 
                 DefaultGenerator defaultGenerator = new DefaultGenerator();
+                defaultGenerator.setVerifyOnly(verify);
                 defaultGenerator.opts(opts);
 
                 defaultGenerator.generate();
 
-                System.out.printf(Locale.ROOT, "[%s] Finished generating %s…%n", Thread.currentThread().getName(), name);
-                successes.incrementAndGet();
-            } catch (Throwable e) {
-                failures.incrementAndGet();
-                String failedOn = name;
-                if (StringUtils.isEmpty(failedOn)) {
-                    failedOn = "unspecified";
-                }
-                System.err.printf(Locale.ROOT, "[%s] Generation failed for %s: (%s) %s%n", Thread.currentThread().getName(), failedOn, e.getClass().getSimpleName(), e.getMessage());
-                e.printStackTrace(System.err);
-                if (exitOnError) {
-                    System.exit(1);
+                if (verify) {
+                    VerifyingTemplateManager verifier = (VerifyingTemplateManager) defaultGenerator.getTemplateProcessor();
+                    verifier.verifyFilesMetadata(updated, Paths.get(".openapi-generator", config.getFilesMetadataFilename()));
+                    printDifferences(out, label, updated, verifier.getDifferences());
+                } else {
+                    out.printf(Locale.ROOT, "[%s] Finished generating %s…%n", label, name);
                 }
             } finally {
                 GlobalSettings.reset();
             }
         }
 
-        private void cleanPreviousFiles(final String name, Path outDir) throws IOException {
-            System.out.printf(Locale.ROOT, "[%s] Cleaning previous contents for %s in %s…%n", Thread.currentThread().getName(), name, outDir.toString());
+        private void printDifferences(PrintStream out, String label, Path outDir, Map<Path, VerifyingTemplateManager.Difference> differences) {
+            if (differences.isEmpty()) {
+                out.printf(Locale.ROOT, "[%s] Output of %s is up-to-date…%n", label, name);
+                return;
+            }
+            differing.incrementAndGet();
+            out.printf(Locale.ROOT, "[%s] Output of %s differs in %d files:%n", label, name, differences.size());
+            Path base = outDir.toAbsolutePath().normalize();
+            differences.forEach((path, difference) ->
+                    out.printf(Locale.ROOT, "[%s]   %-13s %s%n", label, difference, path.startsWith(base) ? base.relativize(path) : path));
+        }
+
+        private void printFailure(PrintStream err, String label, Throwable e) {
+            String failedOn = name;
+            if (StringUtils.isEmpty(failedOn)) {
+                failedOn = "unspecified";
+            }
+            err.printf(Locale.ROOT, "[%s] Generation failed for %s: (%s) %s%n", label, failedOn, e.getClass().getSimpleName(), e.getMessage());
+            e.printStackTrace(err);
+        }
+
+        private void cleanPreviousFiles(final PrintStream out, final String label, final String name, Path outDir) throws IOException {
+            out.printf(Locale.ROOT, "[%s] Cleaning previous contents for %s in %s…%n", label, name, outDir.toString());
             Path filesMeta = Paths.get(outDir.toAbsolutePath().toString(), ".openapi-generator", "FILES");
             if (filesMeta.toFile().exists()) {
                 FileUtils.readLines(filesMeta.toFile(), StandardCharsets.UTF_8).forEach(relativePath -> {
@@ -256,11 +438,11 @@ public class GenerateBatch extends OpenApiGeneratorCommand {
                             try {
                                 Files.delete(file);
                             } catch (Throwable e) {
-                                System.out.printf(Locale.ROOT, "[%s] Generator %s failed to clean file %s…%n", Thread.currentThread().getName(), name, file);
+                                out.printf(Locale.ROOT, "[%s] Generator %s failed to clean file %s…%n", label, name, file);
                             }
                         }
                     } else {
-                        System.out.printf(Locale.ROOT, "[%s] Generator %s skip cleaning special filename %s…%n", Thread.currentThread().getName(), name, relativePath);
+                        out.printf(Locale.ROOT, "[%s] Generator %s skip cleaning special filename %s…%n", label, name, relativePath);
                     }
                 });
             }
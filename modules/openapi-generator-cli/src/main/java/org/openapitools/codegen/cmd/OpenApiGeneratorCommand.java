@@ -36,4 +36,17 @@ public abstract class OpenApiGeneratorCommand implements Runnable {
      * Logic to be executed by implementing commands
      */
     abstract void execute();
+
+    /**
+     * Ends the command with the given exit status. Within the generation daemon, the status is returned to the
+     * client instead of terminating the JVM.
+     *
+     * @param status the exit status
+     */
+    static void exit(int status) {
+        if (Daemon.isServing()) {
+            throw new Daemon.ExitException(status);
+        }
+        System.exit(status);
+    }
 }
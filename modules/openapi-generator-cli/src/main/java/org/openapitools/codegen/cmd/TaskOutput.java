@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.cmd;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The output of one configuration of a batch. What the generation prints and logs is buffered, and printed at once
+ * when the configuration completes, so that the output of configurations generated concurrently isn't interleaved.
+ * <p>
+ * Logs are routed by the MDC of the generating thread: while {@link #capture(Callable)} runs, the events it logs are
+ * written to the buffer by the appender installed with {@link #installAppender()}, and are denied to the other appenders.
+ */
+final class TaskOutput {
+    private static final String MDC_KEY = "batchConfig";
+    private static final String APPENDER_NAME = "BATCH_CONFIG";
+
+    private static final Map<String, TaskOutput> ACTIVE = new ConcurrentHashMap<>();
+
+    private final String id;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+    private boolean flushed;
+
+    TaskOutput(String id) {
+        this.id = id;
+    }
+
+    PrintStream stream() {
+        return out;
+    }
+
+    /**
+     * Runs a task, buffering what it logs from the current thread.
+     *
+     * @param task the task
+     * @param <T>  the type of the result
+     * @return the result of the task
+     * @throws Exception if the task fails
+     */
+    <T> T capture(Callable<T> task) throws Exception {
+        ACTIVE.put(id, this);
+        MDC.put(MDC_KEY, id);
+        try {
+            return task.call();
+        } finally {
+            MDC.remove(MDC_KEY);
+            ACTIVE.remove(id);
+        }
+    }
+
+    /**
+     * Prints the buffered output, unless it was printed already (e.g. a task which completes after being given up on).
+     *
+     * @param target  the stream to print to
+     * @param trailer a line to print last, or null
+     */
+    synchronized void flush(PrintStream target, String trailer) {
+        if (flushed) {
+            return;
+        }
+        flushed = true;
+        if (trailer != null) {
+            out.println(trailer);
+        }
+        // a single write, so the output of the configuration stays in one piece
+        target.print(bytes.toString(StandardCharsets.UTF_8));
+        target.flush();
+    }
+
+    /**
+     * Routes the events logged by the tasks to their buffers.
+     *
+     * @return the appender, to be detached once the batch is done
+     */
+    static Appender<ILoggingEvent> installAppender() {
+        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(lc);
+        layout.setPattern("%-5level %logger{36} - %msg%n");
+        layout.start();
+
+        Set<Appender<ILoggingEvent>> appenders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Logger logger : lc.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                appenders.add(it.next());
+            }
+        }
+        for (Appender<ILoggingEvent> appender : appenders) {
+            appender.addFilter(new Filter<ILoggingEvent>() {
+                @Override
+                public FilterReply decide(ILoggingEvent event) {
+                    return event.getMDCPropertyMap().containsKey(MDC_KEY) ? FilterReply.DENY : FilterReply.NEUTRAL;
+                }
+            });
+        }
+
+        AppenderBase<ILoggingEvent> appender = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                String id = event.getMDCPropertyMap().get(MDC_KEY);
+                TaskOutput output = id == null ? null : ACTIVE.get(id);
+                if (output != null) {
+                    output.out.print(layout.doLayout(event));
+                }
+            }
+        };
+        appender.setName(APPENDER_NAME);
+        appender.setContext(lc);
+        appender.start();
+        lc.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        return appender;
+    }
+
+    static void detachAppender(Appender<ILoggingEvent> appender) {
+        LoggerContext lc = (LoggerContext) LoggerFactory.getILoggerFactory();
+        lc.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).detachAppender(appender);
+        appender.stop();
+    }
+}
@@ -19,7 +19,6 @@ package org.openapitools.codegen.cmd;
 
 import io.airlift.airline.Command;
 import io.airlift.airline.Option;
-import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
@@ -58,7 +57,7 @@ public class Validate extends OpenApiGeneratorCommand {
         ParseOptions options = new ParseOptions();
         options.setResolve(true);
         final List<AuthorizationValue> authorizationValues = AuthParser.parse(this.auth);
-        SwaggerParseResult result = new OpenAPIParser().readLocation(spec, authorizationValues, options);
+        SwaggerParseResult result = Daemon.specLoader().load(spec, authorizationValues, options);
         List<String> messageList = result.getMessages();
         Set<String> errors = new HashSet<>(messageList);
         Set<String> warnings = new HashSet<>();
@@ -97,7 +96,7 @@ public class Validate extends OpenApiGeneratorCommand {
             sb.append(System.lineSeparator());
             sb.append("[error] Spec has ").append(errors.size()).append(" errors.");
             System.err.println(sb.toString());
-            System.exit(1);
+            exit(1);
         } else if (!warnings.isEmpty()) {
             sb.append(System.lineSeparator());
             sb.append("[info] Spec has ").append(warnings.size()).append(" recommendation(s).");
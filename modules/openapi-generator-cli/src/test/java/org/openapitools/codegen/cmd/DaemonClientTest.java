@@ -0,0 +1,21 @@
+package org.openapitools.codegen.cmd;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DaemonClientTest {
+
+    @Test
+    public void onlyForwardsGenerationCommands() {
+        Assert.assertNull(DaemonClient.forward(new String[]{}));
+        Assert.assertNull(DaemonClient.forward(new String[]{"version"}));
+        Assert.assertNull(DaemonClient.forward(new String[]{"daemon", "--stop"}));
+    }
+
+    @Test
+    public void stateFilePerDirectory() {
+        Assert.assertNotEquals(DaemonClient.stateFile("/work/a"), DaemonClient.stateFile("/work/b"));
+        Assert.assertEquals(DaemonClient.stateFile("/work/a"), DaemonClient.stateFile("/work/a"));
+        Assert.assertFalse(DaemonClient.isRunning("/work/no-daemon-here"));
+    }
+}
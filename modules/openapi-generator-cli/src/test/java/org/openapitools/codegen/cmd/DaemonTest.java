@@ -0,0 +1,134 @@
+package org.openapitools.codegen.cmd;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DaemonTest {
+    private Path tmp;
+    private String userHome;
+    private String directory;
+    private Thread daemon;
+
+    @BeforeClass
+    public void startDaemon() throws Exception {
+        tmp = Files.createTempDirectory("daemon");
+        // keeps the state file out of the actual home directory
+        userHome = System.getProperty("user.home");
+        System.setProperty("user.home", tmp.toString());
+        directory = DaemonClient.workingDirectory();
+
+        daemon = new Thread(() -> new Daemon().execute(), "generation-daemon");
+        daemon.setDaemon(true);
+        daemon.start();
+        for (int i = 0; i < 100 && !DaemonClient.isRunning(directory); i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertTrue(DaemonClient.isRunning(directory));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopDaemon() throws Exception {
+        try {
+            DaemonClient.stop(directory);
+            daemon.join(10000);
+        } finally {
+            System.setProperty("user.home", userHome);
+            FileUtils.deleteDirectory(tmp.toFile());
+        }
+    }
+
+    @Test
+    public void runsLocallyWithAnotherEnvironment() {
+        String[] args = {"validate", "-i", "src/test/resources/batch/specs/petstore.yaml"};
+        Assert.assertNull(DaemonClient.forward(args, () -> "another environment"));
+        Assert.assertEquals(DaemonClient.forward(args, DaemonClient::environment), Integer.valueOf(0));
+    }
+
+    @Test
+    public void forwardsTheOutputAndExitStatus() throws IOException {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        String[] args = {"validate", "-i", "src/test/resources/batch/specs/petstore.yaml"};
+
+        Integer status = DaemonClient.forward(args, DaemonClient::environment, new PrintStream(stdout, true), new PrintStream(stderr, true));
+
+        Assert.assertEquals(status, Integer.valueOf(0));
+        Assert.assertTrue(stdout.toString("UTF-8").startsWith("Validating spec (src/test/resources/batch/specs/petstore.yaml)"),
+                stdout.toString("UTF-8"));
+        Assert.assertEquals(stderr.size(), 0);
+    }
+
+    @Test
+    public void forwardsTheErrorOutputAndExitStatus() throws IOException {
+        Path spec = tmp.resolve("invalid.yaml");
+        Files.write(spec, "openapi: 3.0.1\ninfo: {}\npaths: {}\n".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        String[] args = {"validate", "-i", spec.toString()};
+
+        Integer status = DaemonClient.forward(args, DaemonClient::environment, new PrintStream(stdout, true), new PrintStream(stderr, true));
+
+        Assert.assertEquals(status, Integer.valueOf(1));
+        Assert.assertTrue(stdout.toString("UTF-8").startsWith("Validating spec (" + spec + ")"), stdout.toString("UTF-8"));
+        Assert.assertTrue(stderr.toString("UTF-8").contains("[error] Spec has"), stderr.toString("UTF-8"));
+    }
+
+    @Test
+    public void generatesTheSameFilesWithWarmCaches() throws IOException {
+        // the second generation reuses the parsed spec and the compiled templates of the first one
+        Path first = tmp.resolve("first");
+        Path second = tmp.resolve("second");
+        for (Path output : new Path[]{first, second}) {
+            String[] args = {"generate", "-g", "java", "-i", "src/test/resources/batch/specs/petstore.yaml", "-o", output.toString(),
+                    "-p", "hideGenerationTimestamp=true"};
+            Assert.assertEquals(DaemonClient.forward(args, DaemonClient::environment, new PrintStream(new ByteArrayOutputStream()),
+                    new PrintStream(new ByteArrayOutputStream())), Integer.valueOf(0));
+        }
+
+        Map<Path, String> firstFiles = readFiles(first);
+        Assert.assertFalse(firstFiles.isEmpty());
+        Assert.assertEquals(readFiles(second), firstFiles);
+    }
+
+    @Test
+    public void reportsBatchFailures() throws IOException {
+        Path config = tmp.resolve("missing-spec.yaml");
+        Files.write(config, ("generatorName: java\n"
+                + "inputSpec: " + tmp.resolve("missing.yaml") + "\n"
+                + "outputDir: " + tmp.resolve("out") + "\n").getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(DaemonClient.forward(new String[]{"batch", config.toString()}, DaemonClient::environment),
+                Integer.valueOf(1));
+        Assert.assertEquals(DaemonClient.forward(new String[]{"batch", "--fail-fast", config.toString(), config.toString()},
+                DaemonClient::environment), Integer.valueOf(1));
+    }
+
+    private static Map<Path, String> readFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .collect(Collectors.toMap(dir::relativize, DaemonTest::read, (a, b) -> a, TreeMap::new));
+        }
+    }
+
+    private static String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
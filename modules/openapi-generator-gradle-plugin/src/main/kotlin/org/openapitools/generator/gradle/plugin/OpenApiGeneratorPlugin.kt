@@ -156,6 +156,9 @@ class OpenApiGeneratorPlugin : Plugin<Project> {
                     engine.set(generate.engine)
                     cleanupOutput.set(generate.cleanupOutput)
                     dryRun.set(generate.dryRun)
+                    memoryReport.set(generate.memoryReport)
+                    memoryBudget.set(generate.memoryBudget)
+                    specSnapshotCache.set(generate.specSnapshotCache)
                 }
             }
         }
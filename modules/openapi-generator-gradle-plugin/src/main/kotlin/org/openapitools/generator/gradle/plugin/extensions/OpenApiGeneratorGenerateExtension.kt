@@ -407,6 +407,21 @@ open class OpenApiGeneratorGenerateExtension(project: Project) {
      */
     val dryRun = project.objects.property<Boolean>()
 
+    /**
+     * Logs the heap usage after each phase of the generation.
+     */
+    val memoryReport = project.objects.property<Boolean>()
+
+    /**
+     * Heap usage (e.g. 512m or 2g) above which data no longer needed is released early during the generation.
+     */
+    val memoryBudget = project.objects.property<String>()
+
+    /**
+     * Directory where the input spec is cached once parsed, normalized and flattened, to skip these steps on later builds.
+     */
+    val specSnapshotCache = project.objects.property<String>()
+
     init {
         applyDefaults()
     }
@@ -430,5 +445,6 @@ open class OpenApiGeneratorGenerateExtension(project: Project) {
         generateAliasAsModel.set(false)
         cleanupOutput.set(false)
         dryRun.set(false)
+        memoryReport.set(false)
     }
 }
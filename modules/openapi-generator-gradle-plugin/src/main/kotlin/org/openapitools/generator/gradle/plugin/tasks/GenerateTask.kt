@@ -597,6 +597,27 @@ open class GenerateTask @Inject constructor(private val objectFactory: ObjectFac
     @get:Input
     val dryRun = project.objects.property<Boolean>()
 
+    /**
+     * Logs the heap usage after each phase of the generation.
+     */
+    @get:Optional
+    @get:Input
+    val memoryReport = project.objects.property<Boolean>()
+
+    /**
+     * Heap usage (e.g. 512m or 2g) above which data no longer needed is released early during the generation.
+     */
+    @get:Optional
+    @get:Input
+    val memoryBudget = project.objects.property<String>()
+
+    /**
+     * Directory where the input spec is cached once parsed, normalized and flattened, to skip these steps on later builds.
+     */
+    @get:Optional
+    @get:Internal
+    val specSnapshotCache = project.objects.property<String>()
+
     private fun <T> Property<T>.ifNotEmpty(block: Property<T>.(T) -> Unit) {
         if (isPresent) {
             when (val value = get()) {
@@ -700,6 +721,20 @@ open class GenerateTask @Inject constructor(private val objectFactory: ObjectFac
                 GlobalSettings.setProperty(CodegenConstants.API_TESTS, generateApiTests.get().toString())
             }
 
+            memoryReport.ifNotEmpty { value ->
+                if (value) {
+                    configurator.addGlobalProperty(CodegenConstants.MEMORY_REPORT, "true")
+                }
+            }
+
+            memoryBudget.ifNotEmpty { value ->
+                configurator.addGlobalProperty(CodegenConstants.MEMORY_BUDGET, value)
+            }
+
+            specSnapshotCache.ifNotEmpty { value ->
+                configurator.addGlobalProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, value)
+            }
+
             if (inputSpec.isPresent && remoteInputSpec.isPresent) {
                 logger.warn("Both inputSpec and remoteInputSpec is specified. The remoteInputSpec will take priority over inputSpec.")
             }
@@ -30,6 +30,7 @@ import lombok.Setter;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -530,6 +531,31 @@ public class CodeGenMojo extends AbstractMojo {
     @Parameter(defaultValue = "false", property = "openapi.generator.maven.plugin.dryRun")
     private Boolean dryRun = false;
 
+    /**
+     * Share the parsed input spec with other executions of this plugin in the same Maven session.
+     * Every execution still works on its own copy of the spec.
+     */
+    @Parameter(name = "reuseParsedSpec", property = "openapi.generator.maven.plugin.reuseParsedSpec", defaultValue = "false")
+    private boolean reuseParsedSpec = false;
+
+    /**
+     * Log the heap usage after each phase of the generation.
+     */
+    @Parameter(name = "memoryReport", property = "openapi.generator.maven.plugin.memoryReport", defaultValue = "false")
+    private boolean memoryReport = false;
+
+    /**
+     * Heap usage (e.g. 512m or 2g) above which data no longer needed is released early during the generation.
+     */
+    @Parameter(name = "memoryBudget", property = "openapi.generator.maven.plugin.memoryBudget")
+    private String memoryBudget;
+
+    /**
+     * Directory where the input spec is cached once parsed, normalized and flattened, to skip these steps on later builds.
+     */
+    @Parameter(name = "specSnapshotCache", property = "openapi.generator.maven.plugin.specSnapshotCache")
+    private File specSnapshotCache;
+
     // TODO: Rename to global properties in version 5.1
     @Parameter
     protected Map<String, String> environmentVariables = new HashMap<>();
@@ -555,6 +581,12 @@ public class CodeGenMojo extends AbstractMojo {
     @Parameter(defaultValue = "${mojoExecution}", readonly = true)
     private MojoExecution mojo;
 
+    /**
+     * The current Maven session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
     /**
      * The project being built.
      */
@@ -648,6 +680,10 @@ public class CodeGenMojo extends AbstractMojo {
 
             configurator.setVerbose(verbose);
 
+            if (reuseParsedSpec && session != null) {
+                configurator.setSpecLoader(ParsedSpecCache.forSession(session));
+            }
+
             if (skipOverwrite != null) {
                 configurator.setSkipOverwrite(skipOverwrite);
             }
@@ -805,6 +841,18 @@ public class CodeGenMojo extends AbstractMojo {
             GlobalSettings.setProperty(CodegenConstants.API_DOCS, generateApiDocumentation.toString());
             GlobalSettings.setProperty(CodegenConstants.GENERATE_RECURSIVE_DEPENDENT_MODELS, generateRecursiveDependentModels.toString());
 
+            if (memoryReport) {
+                configurator.addGlobalProperty(CodegenConstants.MEMORY_REPORT, "true");
+            }
+
+            if (isNotEmpty(memoryBudget)) {
+                configurator.addGlobalProperty(CodegenConstants.MEMORY_BUDGET, memoryBudget);
+            }
+
+            if (specSnapshotCache != null) {
+                configurator.addGlobalProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, specSnapshotCache.getAbsolutePath());
+            }
+
             if (configOptions != null) {
                 // Retained for backwards-compatibility with configOptions -> instantiation-types
                 if (instantiationTypes == null && configOptions.containsKey("instantiation-types")) {
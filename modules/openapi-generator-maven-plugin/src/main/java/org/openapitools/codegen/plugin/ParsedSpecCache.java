@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.plugin;
+
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+import org.openapitools.codegen.config.CachingSpecLoader;
+
+/**
+ * A {@link CachingSpecLoader} shared by all {@link CodeGenMojo} executions of a Maven session, which can run in
+ * parallel (<code>mvn -T</code>).
+ */
+class ParsedSpecCache extends CachingSpecLoader {
+    private static final String SESSION_DATA_KEY = ParsedSpecCache.class.getName();
+
+    /**
+     * Returns the cache attached to the given Maven session, creating it on first use.
+     *
+     * @param session the current Maven session
+     * @return the session-scoped cache
+     */
+    static ParsedSpecCache forSession(MavenSession session) {
+        SessionData data = session.getRepositorySession().getData();
+        ParsedSpecCache cache = (ParsedSpecCache) data.get(SESSION_DATA_KEY);
+        while (cache == null) {
+            ParsedSpecCache created = new ParsedSpecCache();
+            cache = data.set(SESSION_DATA_KEY, null, created) ? created : (ParsedSpecCache) data.get(SESSION_DATA_KEY);
+        }
+        return cache;
+    }
+}
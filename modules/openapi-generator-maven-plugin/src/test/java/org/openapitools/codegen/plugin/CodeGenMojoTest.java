@@ -16,6 +16,8 @@
 
 package org.openapitools.codegen.plugin;
 
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.execution.DefaultMavenExecutionRequest;
@@ -34,6 +36,7 @@ import org.eclipse.aether.repository.LocalRepository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -259,6 +262,67 @@ public class CodeGenMojoTest extends BaseTestCase {
         assertEquals(1, matchingArtifacts.size());
     }
 
+    public void testParsedSpecCacheReturnsIsolatedCopies() throws Exception {
+        // GIVEN
+        final Path tempDir = newTempFolder();
+        FileUtils.copyDirectory(new File("src/test/resources/default"), tempDir.toFile());
+        MavenSession session = newMavenSession(readMavenProject(tempDir, "file"));
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        options.setResolveResponses(true);
+        String inputSpec = tempDir.resolve("src/main/resources/petstore.yaml").toString();
+
+        // WHEN
+        ParsedSpecCache cache = ParsedSpecCache.forSession(session);
+        OpenAPI first = cache.load(inputSpec, null, options).getOpenAPI();
+        first.getComponents().getSchemas().remove("Pet");
+        OpenAPI second = ParsedSpecCache.forSession(session).load(inputSpec, null, options).getOpenAPI();
+
+        // THEN
+        assertSame(cache, ParsedSpecCache.forSession(session));
+        assertNotSame(first, second);
+        assertTrue(second.getComponents().getSchemas().containsKey("Pet"));
+    }
+
+    public void testParsedSpecCacheChecksReferencedFiles() throws Exception {
+        // GIVEN
+        final Path tempDir = newTempFolder();
+        FileUtils.copyDirectory(new File("src/test/resources/default"), tempDir.toFile());
+        MavenSession session = newMavenSession(readMavenProject(tempDir, "file"));
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        options.setResolveResponses(true);
+        Path inputSpec = tempDir.resolve("spec.yaml");
+        Path schemas = tempDir.resolve("schemas.yaml");
+        Files.write(inputSpec, String.join("\n",
+                "openapi: 3.0.1",
+                "info:",
+                "  title: test",
+                "  version: '1.0'",
+                "paths:",
+                "  /pet:",
+                "    get:",
+                "      responses:",
+                "        '200':",
+                "          description: ok",
+                "          content:",
+                "            application/json:",
+                "              schema:",
+                "                $ref: './schemas.yaml#/Pet'",
+                "").getBytes(StandardCharsets.UTF_8));
+        Files.write(schemas, "Pet:\n  type: object\n  properties:\n    name:\n      type: string\n".getBytes(StandardCharsets.UTF_8));
+
+        // WHEN
+        ParsedSpecCache cache = ParsedSpecCache.forSession(session);
+        OpenAPI first = cache.load(inputSpec.toString(), null, options).getOpenAPI();
+        Files.write(schemas, "Pet:\n  type: object\n  properties:\n    tag:\n      type: string\n".getBytes(StandardCharsets.UTF_8));
+        OpenAPI second = cache.load(inputSpec.toString(), null, options).getOpenAPI();
+
+        // THEN
+        assertTrue(first.getComponents().getSchemas().get("Pet").getProperties().containsKey("name"));
+        assertTrue(second.getComponents().getSchemas().get("Pet").getProperties().containsKey("tag"));
+    }
+
     public void testAnyInputSpecMustBeProvided() throws Exception {
         // GIVEN
         CodeGenMojo mojo = loadMojo(newTempFolder(), "src/test/resources/default", "file", "executionId");
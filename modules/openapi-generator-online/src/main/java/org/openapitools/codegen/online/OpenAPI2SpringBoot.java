@@ -17,6 +17,9 @@
 
 package org.openapitools.codegen.online;
 
+import org.openapitools.codegen.online.service.ZipUtil;
+import org.openapitools.codegen.utils.GenerationExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.ExitCodeGenerator;
 import org.springframework.boot.SpringApplication;
@@ -62,6 +65,24 @@ public class OpenAPI2SpringBoot implements CommandLineRunner {
         };
     }
 
+    /**
+     * Requests are served by the threads of the web server, the executor bounds the number of generations running at
+     * a time to the number of cores.
+     */
+    @Bean(destroyMethod = "close")
+    GenerationExecutor generationExecutor() {
+        return GenerationExecutor.create(true, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Zips the generated files with a pool of its own, bounded to the number of cores: reading the files blocks, so
+     * they aren't compressed with the common pool the whole JVM shares, nor with the generation executor.
+     */
+    @Bean(destroyMethod = "close")
+    ZipUtil zipUtil(@Value("${generator.zip.level:-1}") int level) {
+        return ZipUtil.withThreadPool(level, Runtime.getRuntime().availableProcessors());
+    }
+
     @Bean
     ForwardedHeaderFilter forwardedHeaderFilter() {
         return new ForwardedHeaderFilter();
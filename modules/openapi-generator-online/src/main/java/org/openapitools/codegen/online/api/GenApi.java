@@ -52,7 +52,7 @@ public interface GenApi {
     }
 
 
-    @ApiOperation(value = "Downloads a pre-generated file", nickname = "downloadFile", notes = "A valid `fileId` is generated by the `/clients/{language}` or `/servers/{language}` POST operations.  The fileId code can be used just once, after which a new `fileId` will need to be requested.", response = MultipartFile.class, tags = {"clients", "servers",})
+    @ApiOperation(value = "Downloads a pre-generated file", nickname = "downloadFile", notes = "A valid `fileId` is generated by the `/clients/{language}` or `/servers/{language}` POST operations.  The fileId code can be used just once, after which a new `fileId` will need to be requested. Results served from the result cache remain available while cached, with their content hash as `ETag`.", response = MultipartFile.class, tags = {"clients", "servers",})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "successful operation", response = MultipartFile.class)})
     @RequestMapping(value = "/gen/download/{fileId}",
@@ -25,4 +25,6 @@ import lombok.Setter;
 public class Generated {
     private String filename;
     private String friendlyName;
+    // set when the file is held by the result cache, which then owns it
+    private String cacheKey;
 }
@@ -27,8 +27,9 @@ import org.openapitools.codegen.online.api.GenApiDelegate;
 import org.openapitools.codegen.online.model.Generated;
 import org.openapitools.codegen.online.model.GeneratorInput;
 import org.openapitools.codegen.online.model.ResponseCode;
+import org.openapitools.codegen.utils.GenerationExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -39,20 +40,26 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class GenApiService implements GenApiDelegate {
 
     private static List<String> clients = new ArrayList<>();
     private static List<String> servers = new ArrayList<>();
-    private static Map<String, Generated> fileMap = new HashMap<>();
+    private static Map<String, Generated> fileMap = new ConcurrentHashMap<>();
+    // files held by the result cache aren't kept in the file map, their id is the friendly name and the cache key
+    private static final Pattern CACHED_FILE_ID = Pattern.compile("([A-Za-z0-9._-]+)\\.([0-9a-f]{64})");
 
     static {
         List<CodegenConfig> extensions = CodegenConfigLoader.getAll();
@@ -72,6 +79,24 @@ public class GenApiService implements GenApiDelegate {
     @Autowired
     private NativeWebRequest request;
 
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private GenerationExecutor generationExecutor;
+
+    @Autowired
+    private GenerationMetrics generationMetrics;
+
+    @Autowired
+    private ZipUtil zipUtil;
+
+    @PostConstruct
+    void bindMetrics() {
+        generationMetrics.bindDownloads(fileMap);
+        generationMetrics.bindCache(resultCache);
+    }
+
     @Override
     public Optional<NativeWebRequest> getRequest() {
         return Optional.ofNullable(request);
@@ -80,38 +105,94 @@ public class GenApiService implements GenApiDelegate {
     @Override
     public ResponseEntity<Resource> downloadFile(String fileId) {
         Generated g = fileMap.get(fileId);
+        if (g == null) {
+            g = getCachedFile(fileId);
+        }
+        if (g == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
+        }
         System.out.println("looking for fileId " + fileId);
         System.out.println("got filename " + g.getFilename());
 
+        if (g.getCacheKey() != null) {
+            return downloadCachedFile(g);
+        }
+
         File file = new File(g.getFilename());
-        Path path = Paths.get(file.getAbsolutePath());
-        ByteArrayResource resource;
-        try {
-            resource = new ByteArrayResource(Files.readAllBytes(path));
-        } catch (FileNotFoundException e) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found", e);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error while reading file", e);
+        if (!file.exists()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
         }
+        HttpServletResponse response = request == null ? null : request.getNativeResponse(HttpServletResponse.class);
+        if (response == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "No response to write the file to");
+        }
+        fileMap.remove(fileId);
+        response.setContentType("application/zip");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + g.getFriendlyName() + "-generated.zip\"");
         try {
-            FileUtils.deleteDirectory(file.getParentFile());
+            if (file.isDirectory()) {
+                // the generated files, zipped straight into the response
+                zipUtil.compressFiles(Collections.singletonList(file), response.getOutputStream());
+            } else {
+                response.setContentLengthLong(file.length());
+                Files.copy(file.toPath(), response.getOutputStream());
+            }
+            response.flushBuffer();
         } catch (IOException e) {
-            System.out.println("failed to delete file " + file.getAbsolutePath());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "I/O error while writing file", e);
+        } finally {
+            FileUtils.deleteQuietly(file.getParentFile());
+        }
+        // written already
+        return null;
+    }
+
+    /**
+     * Serves a file of the result cache, which stays available (and identified by its content hash as ETag) for as long
+     * as it's cached.
+     */
+    private ResponseEntity<Resource> downloadCachedFile(Generated g) {
+        String etag = "\"" + g.getCacheKey() + "\"";
+        if (request != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        File file = new File(g.getFilename());
+        if (!file.isFile()) {
+            // evicted
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found");
         }
         return ResponseEntity
                 .ok()
                 .contentType(MediaType.valueOf("application/zip"))
+                .eTag(etag)
                 .header("Content-Disposition",
                         "attachment; filename=\"" + g.getFriendlyName() + "-generated.zip\"")
                 .header("Accept-Range", "bytes")
-                //.header("Content-Length", bytes.length)
-                .body(resource);
+                .body(new FileSystemResource(file));
+    }
+
+    private Generated getCachedFile(String fileId) {
+        Matcher matcher = CACHED_FILE_ID.matcher(fileId);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Path cached = resultCache.get(matcher.group(2));
+        if (cached == null) {
+            return null;
+        }
+        Generated g = new Generated();
+        g.setFilename(cached.toString());
+        g.setFriendlyName(matcher.group(1));
+        g.setCacheKey(matcher.group(2));
+        return g;
     }
 
     @Override
     public ResponseEntity<ResponseCode> generateClient(String language, GeneratorInput generatorInput) {
-        String filename = Generator.generateClient(language, generatorInput);
-        return getResponse(filename, language + "-client");
+        Generated generated = generationMetrics.generation(language, Generator.Type.CLIENT,
+                () -> Generator.generateClient(language, generatorInput, resultCache, generationExecutor, generationMetrics, zipUtil));
+        return getResponse(generated, language + "-client");
     }
 
     @Override
@@ -151,13 +232,14 @@ public class GenApiService implements GenApiDelegate {
         if (framework == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Framework is required");
         }
-        String filename = Generator.generateServer(framework, generatorInput);
-        System.out.println("generated name: " + filename);
+        Generated generated = generationMetrics.generation(framework, Generator.Type.SERVER,
+                () -> Generator.generateServer(framework, generatorInput, resultCache, generationExecutor, generationMetrics, zipUtil));
+        System.out.println("generated name: " + generated.getFilename());
 
-        return getResponse(filename, framework + "-server");
+        return getResponse(generated, framework + "-server");
     }
 
-    private ResponseEntity<ResponseCode> getResponse(String filename, String friendlyName) {
+    private ResponseEntity<ResponseCode> getResponse(Generated g, String friendlyName) {
         String host = System.getenv("GENERATOR_HOST");
 
         UriComponentsBuilder uriBuilder;
@@ -167,13 +249,17 @@ public class GenApiService implements GenApiDelegate {
             uriBuilder = ServletUriComponentsBuilder.fromCurrentContextPath();
         }
 
-        if (filename != null) {
-            String code = UUID.randomUUID().toString();
-            Generated g = new Generated();
-            g.setFilename(filename);
-            g.setFriendlyName(friendlyName);
-            fileMap.put(code, g);
-            System.out.println(code + ", " + filename);
+        if (g != null && g.getFilename() != null) {
+            String code;
+            if (g.getCacheKey() != null) {
+                // downloadable for as long as it's cached
+                code = friendlyName + "." + g.getCacheKey();
+            } else {
+                code = UUID.randomUUID().toString();
+                g.setFriendlyName(friendlyName);
+                fileMap.put(code, g);
+            }
+            System.out.println(code + ", " + g.getFilename());
             String link = uriBuilder.path("/api/gen/download/").path(code).toUriString();
             return ResponseEntity.ok().body(new ResponseCode(code, link));
         } else {
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.online.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConfigLoader;
+import org.openapitools.codegen.online.model.Generated;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics of the generations, exposed along with the HTTP and JVM metrics at {@code /actuator/prometheus}:
+ * <ul>
+ * <li>{@code openapi_generator_generations_seconds}: latency of the generation requests, by generator, type and outcome</li>
+ * <li>{@code openapi_generator_phase_seconds}: latency of the phases of a generation (parse, generate, zip)</li>
+ * <li>{@code openapi_generator_generations_active}: generations in flight</li>
+ * <li>{@code openapi_generator_cache_lookups_total}: result cache lookups, by result (hit, miss)</li>
+ * <li>{@code openapi_generator_cache_entries}, {@code openapi_generator_cache_bytes}: content of the result cache</li>
+ * <li>{@code openapi_generator_downloads_pending}, {@code openapi_generator_downloads_bytes}: generated files
+ * waiting to be downloaded, and the temporary disk space of those which aren't in the result cache</li>
+ * </ul>
+ * The generator tag is only set to the names of known generators, so that requests for arbitrary names don't create
+ * new series.
+ */
+@Component
+public class GenerationMetrics {
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry registry;
+    private final Set<String> generators;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    @Autowired
+    public GenerationMetrics(ObjectProvider<MeterRegistry> registry) {
+        this(registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    GenerationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.generators = CodegenConfigLoader.getAll().stream().map(CodegenConfig::getName).collect(Collectors.toSet());
+        Gauge.builder("openapi.generator.generations.active", active, AtomicInteger::get)
+                .description("Generations in flight")
+                .register(registry);
+        this.cacheHits = cacheLookups("hit");
+        this.cacheMisses = cacheLookups("miss");
+    }
+
+    private Counter cacheLookups(String result) {
+        return Counter.builder("openapi.generator.cache.lookups")
+                .description("Result cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Times a generation request, counting it as in flight while it runs.
+     *
+     * @param generator  the requested generator
+     * @param type       the generator type
+     * @param generation the generation
+     * @param <T>        the type of the result
+     * @return the result of the generation
+     */
+    public <T> T generation(String generator, Generator.Type type, Supplier<T> generation) {
+        active.incrementAndGet();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            T result = generation.get();
+            outcome = "success";
+            return result;
+        } finally {
+            active.decrementAndGet();
+            sample.stop(Timer.builder("openapi.generator.generations")
+                    .description("Latency of the generation requests")
+                    .tags("generator", tag(generator), "type", type.getTypeName(), "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param phase     the phase, one of parse, generate or zip
+     * @param generator the requested generator
+     * @param type      the generator type
+     * @return the timer of the phase
+     */
+    public Timer phase(String phase, String generator, Generator.Type type) {
+        return Timer.builder("openapi.generator.phase")
+                .description("Latency of the phases of a generation")
+                .tags("phase", phase, "generator", tag(generator), "type", type.getTypeName())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void cacheLookup(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public void bindCache(ResultCache cache) {
+        Gauge.builder("openapi.generator.cache.entries", cache, ResultCache::size)
+                .description("Generated files in the result cache")
+                .register(registry);
+        Gauge.builder("openapi.generator.cache.bytes", cache, ResultCache::sizeInBytes)
+                .description("Size of the result cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void bindDownloads(Map<String, Generated> downloads) {
+        Gauge.builder("openapi.generator.downloads.pending", downloads, Map::size)
+                .description("Generated files waiting to be downloaded")
+                .register(registry);
+        Gauge.builder("openapi.generator.downloads.bytes", downloads, GenerationMetrics::temporaryBytes)
+                .description("Temporary disk space of the generated files waiting to be downloaded, outside of the result cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static double temporaryBytes(Map<String, Generated> downloads) {
+        return downloads.values().stream()
+                .filter(generated -> generated.getCacheKey() == null && generated.getFilename() != null)
+                .mapToLong(generated -> sizeOf(new File(generated.getFilename())))
+                .sum();
+    }
+
+    // a zip file, or the generated files when they are zipped as they are downloaded
+    private static long sizeOf(File file) {
+        try {
+            return file.exists() ? FileUtils.sizeOf(file) : 0;
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            // deleted meanwhile
+            return 0;
+        }
+    }
+
+    private String tag(String generator) {
+        return generator != null && generators.contains(generator) ? generator : UNKNOWN;
+    }
+}
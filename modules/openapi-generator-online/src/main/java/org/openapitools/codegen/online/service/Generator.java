@@ -22,8 +22,11 @@ import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.ParseOptions;
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.*;
+import org.openapitools.codegen.online.model.Generated;
 import org.openapitools.codegen.online.model.GeneratorInput;
+import org.openapitools.codegen.utils.GenerationExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -31,7 +34,10 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 public class Generator {
     private static Logger LOGGER = LoggerFactory.getLogger(Generator.class);
@@ -65,51 +71,23 @@ public class Generator {
         }
     }
 
-    public static String generateClient(String language, GeneratorInput opts) {
-        return generate(language, opts, Type.CLIENT);
+    public static Generated generateClient(String language, GeneratorInput opts, ResultCache cache, GenerationExecutor executor,
+                                         GenerationMetrics metrics, ZipUtil zip) {
+        return generate(language, opts, Type.CLIENT, cache, executor, metrics, zip);
     }
 
-    public static String generateServer(String language, GeneratorInput opts) {
-        return generate(language, opts, Type.SERVER);
+    public static Generated generateServer(String language, GeneratorInput opts, ResultCache cache, GenerationExecutor executor,
+                                         GenerationMetrics metrics, ZipUtil zip) {
+        return generate(language, opts, Type.SERVER, cache, executor, metrics, zip);
     }
 
-    private static String generate(String language, GeneratorInput opts, Type type) {
+    private static Generated generate(String language, GeneratorInput opts, Type type, ResultCache cache, GenerationExecutor executor,
+                                      GenerationMetrics metrics, ZipUtil zip) {
         LOGGER.debug(String.format(Locale.ROOT, "generate %s for %s", type.getTypeName(), language));
         if (opts == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No options were supplied");
         }
-        JsonNode node = opts.getSpec();
-        if (node != null && "{}".equals(node.toString())) {
-            LOGGER.debug("ignoring empty spec");
-            node = null;
-        }
-        OpenAPI openapi;
-        ParseOptions parseOptions = new ParseOptions();
-        parseOptions.setResolve(true);
-        if (node == null) {
-            if (opts.getOpenAPIUrl() != null) {
-                if (opts.getAuthorizationValue() != null) {
-                    List<AuthorizationValue> authorizationValues = new ArrayList<>();
-                    authorizationValues.add(opts.getAuthorizationValue());
-                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), authorizationValues, parseOptions).getOpenAPI();
-                } else {
-                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), null, parseOptions).getOpenAPI();
-                }
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No OpenAPI specification was supplied");
-            }
-        } else if (opts.getAuthorizationValue() != null) {
-            List<AuthorizationValue> authorizationValues = new ArrayList<>();
-            authorizationValues.add(opts.getAuthorizationValue());
-            openapi = new OpenAPIParser().readContents(node.toString(), authorizationValues, parseOptions).getOpenAPI();
-
-        } else {
-            openapi = new OpenAPIParser().readContents(node.toString(), null, parseOptions).getOpenAPI();
-        }
-        if (openapi == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The OpenAPI specification supplied was not valid");
-        }
-
+        OpenAPI openapi = metrics == null ? parse(opts) : metrics.phase("parse", language, type).record(() -> parse(opts));
 
         // do not use opts.getOptions().get("outputFolder") as the input can contain ../../
         // to access other folders in the server
@@ -133,13 +111,28 @@ public class Generator {
             codegenConfig.additionalProperties().put("openAPI", openapi);
         }
 
+        Map<String, String> normalizerRules = new LinkedHashMap<>();
         if (opts.getOpenapiNormalizer() != null && !opts.getOpenapiNormalizer().isEmpty()) {
             for (String rule : opts.getOpenapiNormalizer()) {
                 String[] ruleOperands = rule.split("=");
                 if (ruleOperands.length != 2) {
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "In rule: " + rule + "the operands were not provided in the form of <Rule>=<Value>");
                 }
-                codegenConfig.openapiNormalizer().put(ruleOperands[0], ruleOperands[1]);
+                normalizerRules.put(ruleOperands[0], ruleOperands[1]);
+            }
+            codegenConfig.openapiNormalizer().putAll(normalizerRules);
+        }
+
+        String cacheKey = null;
+        if (cache != null && cache.isEnabled()) {
+            cacheKey = ResultCache.key(language, type, openapi, opts.getOptions(), normalizerRules);
+            Path cached = cache.get(cacheKey);
+            if (metrics != null) {
+                metrics.cacheLookup(cached != null);
+            }
+            if (cached != null) {
+                LOGGER.debug("serving {} from the result cache", cacheKey);
+                return generated(cached.toString(), cacheKey);
             }
         }
 
@@ -148,17 +141,26 @@ public class Generator {
         clientOptInput.config(codegenConfig);
 
         try {
-            List<File> files = new DefaultGenerator().opts(clientOptInput).generate();
-            if (files.size() > 0) {
-                List<File> filesToAdd = new ArrayList<>();
-                LOGGER.debug("adding to {}", outputFolder);
-                filesToAdd.add(new File(outputFolder));
-                ZipUtil zip = new ZipUtil();
-                zip.compressFiles(filesToAdd, outputFilename);
-            } else {
+            // the spec is parsed (and fetched) already, what remains is CPU-bound
+            Callable<List<File>> generation = () -> timed(metrics, "generate", language, type,
+                    () -> new DefaultGenerator().opts(clientOptInput).generate());
+            List<File> files = executor == null ? generation.call() : executor.cpuBound(generation);
+            if (files.isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "A target generation was attempted, but no files were created!");
             }
+            if (cacheKey == null) {
+                // not cached, the files are zipped as they are downloaded
+                return generated(outputFolder, null);
+            }
+            List<File> filesToAdd = new ArrayList<>();
+            LOGGER.debug("adding to {}", outputFolder);
+            filesToAdd.add(new File(outputFolder));
+            ZipUtil zipUtil = zip == null ? new ZipUtil() : zip;
+            timed(metrics, "zip", language, type, () -> {
+                zipUtil.compressFiles(filesToAdd, outputFilename);
+                return null;
+            });
             for (File file : files) {
                 try {
                     file.delete();
@@ -174,7 +176,60 @@ public class Generator {
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unable to build target: " + e.getMessage(), e);
         }
-        return outputFilename;
+
+        Path cached = cache.put(cacheKey, Paths.get(outputFilename));
+        if (cached != null) {
+            FileUtils.deleteQuietly(new File(outputFilename).getParentFile());
+            return generated(cached.toString(), cacheKey);
+        }
+        // e.g. larger than the cache
+        return generated(outputFilename, null);
+    }
+
+    private static OpenAPI parse(GeneratorInput opts) {
+        JsonNode node = opts.getSpec();
+        if (node != null && "{}".equals(node.toString())) {
+            LOGGER.debug("ignoring empty spec");
+            node = null;
+        }
+        OpenAPI openapi;
+        ParseOptions parseOptions = new ParseOptions();
+        parseOptions.setResolve(true);
+        if (node == null) {
+            if (opts.getOpenAPIUrl() != null) {
+                if (opts.getAuthorizationValue() != null) {
+                    List<AuthorizationValue> authorizationValues = new ArrayList<>();
+                    authorizationValues.add(opts.getAuthorizationValue());
+                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), authorizationValues, parseOptions).getOpenAPI();
+                } else {
+                    openapi = new OpenAPIParser().readLocation(opts.getOpenAPIUrl(), null, parseOptions).getOpenAPI();
+                }
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No OpenAPI specification was supplied");
+            }
+        } else if (opts.getAuthorizationValue() != null) {
+            List<AuthorizationValue> authorizationValues = new ArrayList<>();
+            authorizationValues.add(opts.getAuthorizationValue());
+            openapi = new OpenAPIParser().readContents(node.toString(), authorizationValues, parseOptions).getOpenAPI();
+
+        } else {
+            openapi = new OpenAPIParser().readContents(node.toString(), null, parseOptions).getOpenAPI();
+        }
+        if (openapi == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The OpenAPI specification supplied was not valid");
+        }
+        return openapi;
+    }
+
+    private static <T> T timed(GenerationMetrics metrics, String phase, String language, Type type, Callable<T> stage) throws Exception {
+        return metrics == null ? stage.call() : metrics.phase(phase, language, type).recordCallable(stage);
+    }
+
+    private static Generated generated(String filename, String cacheKey) {
+        Generated generated = new Generated();
+        generated.setFilename(filename);
+        generated.setCacheKey(cacheKey);
+        return generated;
     }
 
     private static File getTmpFolder() {
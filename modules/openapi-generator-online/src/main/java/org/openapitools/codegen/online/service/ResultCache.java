@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.online.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.utils.ImplementationVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Content-addressed store of generated zip files, so that a generation requested again (same spec, generator, options
+ * and normalizer rules) is served without generating it again.
+ * <p>
+ * The artifacts are kept in a local directory, bounded in size: the least recently used artifacts are evicted first.
+ * When {@code generator.cache.directory} isn't set, a new temporary directory is used by each process; a configured
+ * directory is reused across restarts.
+ */
+@Component
+public class ResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+    private static final String EXTENSION = ".zip";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // cache key -> size of the artifact, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ResultCache(@Value("${generator.cache.enabled:true}") boolean enabled,
+                       @Value("${generator.cache.directory:}") String directory,
+                       @Value("${generator.cache.max-size-mb:512}") long maxSizeMb) {
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.directory = enabled && maxBytes > 0 ? open(directory) : null;
+        if (this.directory != null) {
+            load();
+            LOGGER.info("Caching up to {} MB of generated artifacts in {}", maxSizeMb, this.directory);
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Computes the cache key of a generation.
+     *
+     * @param language        the generator name
+     * @param type            the generator type
+     * @param openapi         the parsed specification
+     * @param options         the generator options
+     * @param normalizerRules the OpenAPI normalizer rules
+     * @return the hex encoded SHA-256 hash of the generator version and the inputs
+     */
+    public static String key(String language, Generator.Type type, OpenAPI openapi,
+                             Map<String, String> options, Map<String, String> normalizerRules) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            out.write(String.join("\n", ImplementationVersion.read(), type.getTypeName(), language, "")
+                    .getBytes(StandardCharsets.UTF_8));
+            ObjectWriter writer = Json.mapper().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // the order in which options and rules are given doesn't matter
+            writer.writeValue(out, options == null ? Collections.emptyMap() : new TreeMap<>(options));
+            writer.writeValue(out, normalizerRules == null ? Collections.emptyMap() : new TreeMap<>(normalizerRules));
+            // the parsed model, so that formatting, YAML vs. JSON and the location of external references don't matter.
+            // 3.1 specs need the 3.1 mapper, the other one drops keywords such as const, prefixItems or $ref siblings
+            ObjectWriter specWriter = (SpecVersion.V31.equals(openapi.getSpecVersion()) ? Json31.mapper() : Json.mapper())
+                    .writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            specWriter.writeValue(out, openapi);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to hash the specification", e);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Looks up an artifact, marking it as recently used.
+     *
+     * @param key the cache key
+     * @return the artifact, or {@code null} if it isn't cached
+     */
+    public synchronized Path get(String key) {
+        if (directory == null || entries.get(key) == null) {
+            return null;
+        }
+        Path path = path(key);
+        if (!Files.isRegularFile(path)) {
+            // removed behind our back
+            totalBytes -= entries.remove(key);
+            return null;
+        }
+        // keeps the order across restarts
+        path.toFile().setLastModified(System.currentTimeMillis());
+        return path;
+    }
+
+    /**
+     * Moves an artifact into the cache, evicting the least recently used artifacts if needed.
+     *
+     * @param key      the cache key
+     * @param artifact the generated zip file
+     * @return the cached artifact, or {@code null} if it isn't cached (e.g. it's larger than the cache)
+     */
+    public synchronized Path put(String key, Path artifact) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            long size = Files.size(artifact);
+            if (size > maxBytes) {
+                return null;
+            }
+            Path path = path(key);
+            Files.move(artifact, path, StandardCopyOption.REPLACE_EXISTING);
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            evict(key);
+            return path;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cache {}: {}", artifact, e.getMessage());
+            return null;
+        }
+    }
+
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(path(entry.getKey()));
+            } catch (IOException e) {
+                LOGGER.warn("Failed to evict {}: {}", entry.getKey(), e.getMessage());
+                continue;
+            }
+            totalBytes -= entry.getValue();
+            it.remove();
+        }
+    }
+
+    private Path path(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    private static Path open(String directory) {
+        try {
+            if (StringUtils.isBlank(directory)) {
+                Path path = Files.createTempDirectory("codegen-cache");
+                path.toFile().deleteOnExit();
+                return path;
+            }
+            return Files.createDirectories(Paths.get(directory));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Result cache disabled, unable to use {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void load() {
+        File[] files = directory.toFile().listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            String name = file.getName();
+            entries.put(name.substring(0, name.length() - EXTENSION.length()), file.length());
+            totalBytes += file.length();
+        }
+        evict(null);
+    }
+}
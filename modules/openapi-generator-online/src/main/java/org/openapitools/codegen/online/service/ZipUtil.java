@@ -18,21 +18,96 @@
 package org.openapitools.codegen.online.service;
 
 import java.io.*;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * This utility compresses a list of files to standard ZIP format file. It is able to compresses all
  * sub files and sub directories, recursively.
+ * <p>
+ * With an executor, the entries are compressed in parallel, each into its own deflate stream, and written to the
+ * archive in order as they complete, so that the archive can be streamed (e.g. to an HTTP response) while the next
+ * entries are compressed. At most a few entries per core are held in memory at a time. Files which are compressed
+ * already (archives, images, fonts) and files which don't get smaller are stored as they are.
  *
  * @author Ha Minh Nam
  */
-public class ZipUtil {
+public class ZipUtil implements AutoCloseable {
     /**
      * A constants for buffer size used to read/write data.
      */
-    private static final int BUFFER_SIZE = 4096;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "zip", "jar", "war", "aar", "gz", "tgz", "bz2", "xz", "7z",
+            "png", "jpg", "jpeg", "gif", "webp", "ico", "woff", "woff2"));
+
+    private final int level;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Compresses the entries in the calling thread, with the default compression level.
+     */
+    public ZipUtil() {
+        this(Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    /**
+     * @param level    the compression level, from {@link Deflater#NO_COMPRESSION} (all entries are stored) to
+     *                 {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param executor the executor compressing the entries, or null to compress them in the calling thread
+     */
+    public ZipUtil(int level, Executor executor) {
+        this(level, executor, false);
+    }
+
+    private ZipUtil(int level, Executor executor, boolean ownsExecutor) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+        this.level = level;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Creates an instance compressing the entries with a pool of its own, which {@link #close()} shuts down. Reading
+     * the files blocks, so they aren't compressed with a pool shared with other tasks (e.g. the common pool).
+     *
+     * @param level   the compression level, see {@link #ZipUtil(int, Executor)}
+     * @param threads the number of threads of the pool
+     * @return the instance, to be closed once done
+     */
+    public static ZipUtil withThreadPool(int level, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "zip-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ZipUtil(level, pool, true);
+    }
+
+    /**
+     * Shuts down the pool of an instance created by {@link #withThreadPool(int, int)}, an executor given to the
+     * constructor is left as it is.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
 
     /**
      * Compresses a collection of files to a destination zip file.
@@ -45,75 +120,284 @@ public class ZipUtil {
     public void compressFiles(List<File> listFiles, String destZipFile)
             throws IOException {
 
-        try (FileOutputStream fileOutputStream = new FileOutputStream(destZipFile);
-             ZipOutputStream zos = new ZipOutputStream(fileOutputStream)) {
+        try (FileOutputStream fileOutputStream = new FileOutputStream(destZipFile)) {
+            compressFiles(listFiles, fileOutputStream);
+        }
+    }
 
-            for (File file : listFiles) {
-                if (file.isDirectory()) {
-                    addFolderToZip(file, file.getName(), zos);
-                } else {
-                    addFileToZip(file, zos);
-                }
+    /**
+     * Compresses a collection of files to a stream, which is left open.
+     *
+     * @param listFiles A collection of files and directories
+     * @param out       the stream the archive is written to
+     * @throws FileNotFoundException if file not found
+     * @throws IOException           if IO exception occurs
+     */
+    public void compressFiles(List<File> listFiles, OutputStream out) throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (File file : listFiles) {
+            if (file.isDirectory()) {
+                addFolderToZip(file, file.getName(), sources);
+            } else {
+                sources.add(new Source(file, file.getName()));
             }
+        }
 
-            zos.flush();
+        ZipWriter writer = new ZipWriter(new BufferedOutputStream(new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                // the stream belongs to the caller
+                flush();
+            }
+        }, BUFFER_SIZE));
+
+        // the entries ahead of the one being written, compressed meanwhile
+        int window = executor == null ? 1 : 2 * Runtime.getRuntime().availableProcessors();
+        Deque<Future<Entry>> pending = new ArrayDeque<>();
+        Iterator<Source> it = sources.iterator();
+        try {
+            while (it.hasNext() || !pending.isEmpty()) {
+                while (it.hasNext() && pending.size() < window) {
+                    pending.add(submit(it.next()));
+                }
+                writer.write(await(pending.poll()));
+            }
+            writer.finish();
+        } finally {
+            for (Future<Entry> future : pending) {
+                future.cancel(false);
+            }
         }
     }
 
     /**
-     * Adds a directory to the current zip output stream.
+     * Adds the files of a directory, recursively.
      *
      * @param folder       the directory to be added
      * @param parentFolder the path of parent directory
-     * @param zos          the current zip output stream
-     * @throws FileNotFoundException if file not found
-     * @throws IOException           if IO exception occurs
+     * @param sources      the files to be added
      */
-    private void addFolderToZip(File folder, String parentFolder, ZipOutputStream zos)
-            throws FileNotFoundException, IOException {
-        for (File file : folder.listFiles()) {
+    private static void addFolderToZip(File folder, String parentFolder, List<Source> sources) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
             if (file.isDirectory()) {
-                addFolderToZip(file, parentFolder + "/" + file.getName(), zos);
-                continue;
+                addFolderToZip(file, parentFolder + "/" + file.getName(), sources);
+            } else {
+                sources.add(new Source(file, parentFolder + "/" + file.getName()));
             }
+        }
+    }
 
-            zos.putNextEntry(new ZipEntry(parentFolder + "/" + file.getName()));
+    private Future<Entry> submit(Source source) throws IOException {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(compress(source));
+        }
+        FutureTask<Entry> task = new FutureTask<>(() -> compress(source));
+        executor.execute(task);
+        return task;
+    }
 
-            try (FileInputStream fileInputStream = new FileInputStream(file);
-                 BufferedInputStream bis = new BufferedInputStream(fileInputStream)) {
-                byte[] bytesIn = new byte[BUFFER_SIZE];
-                int read;
-                while ((read = bis.read(bytesIn)) != -1) {
-                    zos.write(bytesIn, 0, read);
-                }
+    private static Entry await(Future<Entry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
             }
+            throw new IOException(cause);
+        }
+    }
+
+    private Entry compress(Source source) throws IOException {
+        byte[] data = Files.readAllBytes(source.file.toPath());
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        byte[] compressed = null;
+        if (level != Deflater.NO_COMPRESSION && !isCompressed(source.name)) {
+            compressed = deflate(data);
+            if (compressed.length >= data.length) {
+                compressed = null;
+            }
+        }
+        return new Entry(source.name, source.file.lastModified(), crc.getValue(), data.length,
+                compressed == null ? ZipEntry.STORED : ZipEntry.DEFLATED, compressed == null ? data : compressed);
+    }
+
+    private byte[] deflate(byte[] data) {
+        // raw deflate data, as a zip entry holds it
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[Math.min(BUFFER_SIZE, Math.max(64, data.length))];
+            while (!deflater.finished()) {
+                bytes.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return bytes.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static boolean isCompressed(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static final class Source {
+        private final File file;
+        private final String name;
+
+        private Source(File file, String name) {
+            this.file = file;
+            this.name = name;
+        }
+    }
 
-            zos.closeEntry();
+    private static final class Entry {
+        private final byte[] name;
+        private final long lastModified;
+        private final long crc;
+        private final long size;
+        private final int method;
+        private final long compressedSize;
+        private byte[] content;
+        private long offset;
 
+        private Entry(String name, long lastModified, long crc, long size, int method, byte[] content) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.lastModified = lastModified;
+            this.crc = crc;
+            this.size = size;
+            this.method = method;
+            this.compressedSize = content.length;
+            this.content = content;
         }
     }
 
     /**
-     * Adds a file to the current zip output stream.
-     *
-     * @param file the file to be added
-     * @param zos  the current zip output stream
-     * @throws FileNotFoundException if file not found
-     * @throws IOException           if IO exception occurs
+     * Writes entries whose content is compressed already, along with the central directory of the archive.
      */
-    private static void addFileToZip(File file, ZipOutputStream zos) throws FileNotFoundException,
-            IOException {
-        zos.putNextEntry(new ZipEntry(file.getName()));
-
-        try (FileInputStream fileInputStream = new FileInputStream(file);
-             BufferedInputStream bis = new BufferedInputStream(fileInputStream)) {
-            byte[] bytesIn = new byte[BUFFER_SIZE];
-            int read;
-            while ((read = bis.read(bytesIn)) != -1) {
-                zos.write(bytesIn, 0, read);
+    private static final class ZipWriter {
+        private static final int LOCAL_HEADER = 0x04034b50;
+        private static final int CENTRAL_HEADER = 0x02014b50;
+        private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+        // the names are encoded in UTF-8
+        private static final int FLAGS = 1 << 11;
+        private static final long MAX_OFFSET = 0xFFFFFFFFL;
+        private static final int MAX_ENTRIES = 0xFFFF;
+
+        private final OutputStream out;
+        private final List<Entry> entries = new ArrayList<>();
+        private long written;
+
+        private ZipWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        private void write(Entry entry) throws IOException {
+            if (entries.size() == MAX_ENTRIES || written + entry.compressedSize > MAX_OFFSET) {
+                throw new IOException("Too many or too large files for a zip file");
+            }
+            entry.offset = written;
+            writeInt(LOCAL_HEADER);
+            writeShort(version(entry));
+            writeShort(FLAGS);
+            writeShort(entry.method);
+            writeInt(dosTime(entry.lastModified));
+            writeInt((int) entry.crc);
+            writeInt((int) entry.compressedSize);
+            writeInt((int) entry.size);
+            writeShort(entry.name.length);
+            writeShort(0);
+            writeBytes(entry.name);
+            writeBytes(entry.content);
+            // only the headers are kept, for the central directory
+            entry.content = null;
+            entries.add(entry);
+        }
+
+        private void finish() throws IOException {
+            long start = written;
+            for (Entry entry : entries) {
+                writeInt(CENTRAL_HEADER);
+                writeShort(version(entry));
+                writeShort(version(entry));
+                writeShort(FLAGS);
+                writeShort(entry.method);
+                writeInt(dosTime(entry.lastModified));
+                writeInt((int) entry.crc);
+                writeInt((int) entry.compressedSize);
+                writeInt((int) entry.size);
+                writeShort(entry.name.length);
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeShort(0);
+                writeInt(0);
+                writeInt((int) entry.offset);
+                writeBytes(entry.name);
+            }
+            long size = written - start;
+            if (written > MAX_OFFSET) {
+                throw new IOException("Too many or too large files for a zip file");
             }
+            writeInt(END_OF_CENTRAL_DIRECTORY);
+            writeShort(0);
+            writeShort(0);
+            writeShort(entries.size());
+            writeShort(entries.size());
+            writeInt((int) size);
+            writeInt((int) start);
+            writeShort(0);
+            out.flush();
         }
 
-        zos.closeEntry();
+        private static int version(Entry entry) {
+            return entry.method == ZipEntry.DEFLATED ? 20 : 10;
+        }
+
+        // the MS-DOS date (high half) and time (low half)
+        private static int dosTime(long millis) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return (time.getYear() - 1980) << 25 | time.getMonthValue() << 21 | time.getDayOfMonth() << 16
+                    | time.getHour() << 11 | time.getMinute() << 5 | time.getSecond() >> 1;
+        }
+
+        private void writeShort(int value) throws IOException {
+            out.write(value & 0xFF);
+            out.write((value >>> 8) & 0xFF);
+            written += 2;
+        }
+
+        private void writeInt(int value) throws IOException {
+            writeShort(value & 0xFFFF);
+            writeShort((value >>> 16) & 0xFFFF);
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            out.write(bytes);
+            written += bytes.length;
+        }
     }
 }
@@ -15,6 +15,7 @@ import org.springframework.util.Assert;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,6 +26,8 @@ public class GenApiControllerTest {
 
     private static final String OPENAPI_URL = "https://raw.githubusercontent.com/OpenAPITools/openapi-generator/v4.3.1/modules/openapi-generator/src/test/resources/petstore.json";
     private static final String UUID_REGEX = "[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-4[a-fA-F0-9]{3}-[89aAbB][a-fA-F0-9]{3}-[a-fA-F0-9]{12}";
+    // results held by the result cache are identified by the generator and the cache key
+    private static final String CODE_REGEX = "(" + UUID_REGEX + "|[a-z0-9-]+\\.[a-f0-9]{64})";
 
     @Autowired
     private MockMvc mockMvc;
@@ -92,8 +95,8 @@ public class GenApiControllerTest {
                         .content("{\"openAPIUrl\": \"" + OPENAPI_URL + "\"}"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.code").value(matchesPattern(UUID_REGEX)))
-                .andExpect(jsonPath("$.link").value(matchesPattern("http\\:\\/\\/test.com\\:1234\\/api\\/gen\\/download\\/" + UUID_REGEX)))
+                .andExpect(jsonPath("$.code").value(matchesPattern(CODE_REGEX)))
+                .andExpect(jsonPath("$.link").value(matchesPattern("http\\:\\/\\/test.com\\:1234\\/api\\/gen\\/download\\/" + CODE_REGEX)))
                 .andReturn().getResponse().getContentAsString();
 
         String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
@@ -104,6 +107,40 @@ public class GenApiControllerTest {
                 .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, not(0)));
     }
 
+    @Test
+    public void generateFromResultCache() throws Exception {
+        String first = generate("clients", "java");
+        String second = generate("clients", "java");
+
+        String etag = mockMvc.perform(get("http://test.com:1234/api/gen/download/" + first))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // the same result, which can be downloaded again while cached
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + second))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + second)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // served from the cache entry, without a download registered for each generation
+        assertEquals(first, second);
+        mockMvc.perform(get("http://test.com:1234/api/gen/download/" + first)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String generate(String type, String name) throws Exception {
+        String result = mockMvc.perform(post("http://test.com:1234/api/gen/" + type + "/" + name)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"openAPIUrl\": \"" + OPENAPI_URL + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new ObjectMapper().readValue(result, ResponseCode.class).getCode();
+    }
+
     @Test
     public void generateWIthForwardedHeaders() throws Exception {
         String result = mockMvc.perform(post("http://test.com:1234/api/gen/clients/java")
@@ -114,8 +151,8 @@ public class GenApiControllerTest {
                         .content("{\"openAPIUrl\": \"" + OPENAPI_URL + "\"}"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.code").value(matchesPattern(UUID_REGEX)))
-                .andExpect(jsonPath("$.link").value(matchesPattern("https\\:\\/\\/forwarded.com\\:5678\\/api\\/gen\\/download\\/" + UUID_REGEX)))
+                .andExpect(jsonPath("$.code").value(matchesPattern(CODE_REGEX)))
+                .andExpect(jsonPath("$.link").value(matchesPattern("https\\:\\/\\/forwarded.com\\:5678\\/api\\/gen\\/download\\/" + CODE_REGEX)))
                 .andReturn().getResponse().getContentAsString();
 
         String code = new ObjectMapper().readValue(result, ResponseCode.class).getCode();
@@ -0,0 +1,43 @@
+package org.openapitools.codegen.online.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GenerationMetricsTest {
+
+    @Test
+    public void timesGenerationsByKnownGenerator() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationMetrics metrics = new GenerationMetrics(registry);
+
+        assertEquals("done", metrics.generation("java", Generator.Type.CLIENT, () -> {
+            assertEquals(1, registry.get("openapi.generator.generations.active").gauge().value());
+            return "done";
+        }));
+        assertThrows(IllegalStateException.class, () -> metrics.generation("no-such-generator", Generator.Type.SERVER, () -> {
+            throw new IllegalStateException("broken");
+        }));
+
+        assertEquals(0, registry.get("openapi.generator.generations.active").gauge().value());
+        assertEquals(1, registry.get("openapi.generator.generations")
+                .tags("generator", "java", "type", "client", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("openapi.generator.generations")
+                .tags("generator", "unknown", "type", "server", "outcome", "error").timer().count());
+    }
+
+    @Test
+    public void countsCacheLookups() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        GenerationMetrics metrics = new GenerationMetrics(registry);
+
+        metrics.cacheLookup(true);
+        metrics.cacheLookup(false);
+        metrics.cacheLookup(false);
+
+        assertEquals(1, registry.get("openapi.generator.cache.lookups").tag("result", "hit").counter().count());
+        assertEquals(2, registry.get("openapi.generator.cache.lookups").tag("result", "miss").counter().count());
+    }
+}
@@ -0,0 +1,91 @@
+package org.openapitools.codegen.online.service;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void keyIgnoresOptionOrder() {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("a", "1");
+        options.put("b", "2");
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("b", "2");
+        reordered.put("a", "1");
+
+        String key = ResultCache.key("java", Generator.Type.CLIENT, openapi("1.0"), options, null);
+        assertEquals(key, ResultCache.key("java", Generator.Type.CLIENT, openapi("1.0"), reordered, Collections.emptyMap()));
+        assertNotEquals(key, ResultCache.key("java", Generator.Type.CLIENT, openapi("1.1"), options, null));
+        assertNotEquals(key, ResultCache.key("java", Generator.Type.SERVER, openapi("1.0"), options, null));
+        assertNotEquals(key, ResultCache.key("java", Generator.Type.CLIENT, openapi("1.0"), options,
+                Collections.singletonMap("FILTER", "operationId:updatePet")));
+    }
+
+    @Test
+    public void keyCoversOpenAPI31Keywords() {
+        String key = ResultCache.key("java", Generator.Type.CLIENT, openapi31("a"), null, null);
+        assertEquals(key, ResultCache.key("java", Generator.Type.CLIENT, openapi31("a"), null, null));
+        assertNotEquals(key, ResultCache.key("java", Generator.Type.CLIENT, openapi31("b"), null, null));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        ResultCache cache = new ResultCache(true, tmp.resolve("cache").toString(), 1);
+        byte[] content = new byte[400 * 1024];
+
+        assertNotNull(cache.put("a", artifact("a", content)));
+        assertNotNull(cache.put("b", artifact("b", content)));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.put("c", artifact("c", content)));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertFalse(Files.exists(tmp.resolve("cache").resolve("b.zip")));
+
+        // larger than the cache
+        assertNull(cache.put("d", artifact("d", new byte[2 * 1024 * 1024])));
+    }
+
+    @Test
+    public void reloadsExistingEntries() throws IOException {
+        String directory = tmp.resolve("cache").toString();
+        new ResultCache(true, directory, 1).put("a", artifact("a", new byte[16]));
+
+        assertNotNull(new ResultCache(true, directory, 1).get("a"));
+        assertNull(new ResultCache(false, directory, 1).get("a"));
+    }
+
+    private Path artifact(String name, byte[] content) throws IOException {
+        return Files.write(tmp.resolve(name + "-bundle.zip"), content);
+    }
+
+    private static OpenAPI openapi(String version) {
+        return new OpenAPI().info(new Info().title("test").version(version));
+    }
+
+    private static OpenAPI openapi31(String constValue) {
+        Schema<Object> schema = new Schema<>();
+        schema.setConst(constValue);
+        OpenAPI openapi = new OpenAPI(SpecVersion.V31).info(new Info().title("test").version("1.0"));
+        return openapi.components(new Components().addSchemas("Value", schema));
+    }
+}
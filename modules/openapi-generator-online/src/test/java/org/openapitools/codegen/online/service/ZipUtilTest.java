@@ -0,0 +1,96 @@
+package org.openapitools.codegen.online.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZipUtilTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void compressesFoldersInParallel() throws IOException {
+        Path folder = generated();
+        Path zip = tmp.resolve("parallel.zip");
+
+        new ZipUtil().compressFiles(Collections.singletonList(folder.toFile()), zip.toString());
+
+        Map<String, ZipEntry> entries = assertContent(zip);
+        assertEquals(ZipEntry.DEFLATED, entries.get("java-client/src/Model0.java").getMethod());
+        // compressed already
+        assertEquals(ZipEntry.STORED, entries.get("java-client/logo.png").getMethod());
+    }
+
+    @Test
+    public void storesWithoutCompression() throws IOException {
+        Path folder = generated();
+        Path zip = tmp.resolve("stored.zip");
+
+        new ZipUtil(Deflater.NO_COMPRESSION, null).compressFiles(Collections.singletonList(folder.toFile()), zip.toString());
+
+        for (ZipEntry entry : assertContent(zip).values()) {
+            assertEquals(ZipEntry.STORED, entry.getMethod());
+        }
+    }
+
+    @Test
+    public void leavesTheStreamOpen() throws IOException {
+        Path folder = generated();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("closed");
+            }
+        };
+
+        try (ZipUtil zipUtil = ZipUtil.withThreadPool(Deflater.BEST_SPEED, 2)) {
+            zipUtil.compressFiles(Collections.singletonList(folder.toFile()), out);
+        }
+
+        Path zip = tmp.resolve("streamed.zip");
+        Files.write(zip, out.toByteArray());
+        assertContent(zip);
+    }
+
+    private Path generated() throws IOException {
+        Path folder = tmp.resolve("java-client");
+        Files.createDirectories(folder.resolve("src"));
+        for (int i = 0; i < 100; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 10 * i; j++) {
+                sb.append("public String field").append(j).append(";\n");
+            }
+            Files.write(folder.resolve("src/Model" + i + ".java"), sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        Files.write(folder.resolve("logo.png"), "not really an image, but compressible".getBytes(StandardCharsets.UTF_8));
+        Files.write(folder.resolve(".openapi-generator-ignore"), new byte[0]);
+        return folder;
+    }
+
+    private Map<String, ZipEntry> assertContent(Path zip) throws IOException {
+        Map<String, ZipEntry> entries = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                byte[] expected = Files.readAllBytes(tmp.resolve(entry.getName()));
+                byte[] actual = zipFile.getInputStream(entry).readAllBytes();
+                assertArrayEquals(expected, actual, entry.getName());
+                entries.put(entry.getName(), entry);
+            }
+        }
+        assertEquals(102, entries.size());
+        return entries;
+    }
+}
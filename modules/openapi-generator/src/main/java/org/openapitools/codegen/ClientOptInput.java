@@ -23,6 +23,7 @@ import lombok.Getter;
 import org.openapitools.codegen.api.TemplateDefinition;
 import org.openapitools.codegen.auth.AuthParser;
 import org.openapitools.codegen.config.GeneratorSettings;
+import org.openapitools.codegen.config.SpecSnapshotCache;
 
 import java.util.List;
 
@@ -33,6 +34,7 @@ public class ClientOptInput {
     private List<AuthorizationValue> auths;
     // not deprecated as this is added to match other functionality, we need to move to Context<?> instead of ClientOptInput.
     @Getter private List<TemplateDefinition> userDefinedTemplates;
+    @Getter private SpecSnapshotCache specSnapshotCache;
 
     public ClientOptInput openAPI(OpenAPI openAPI) {
         this.setOpenAPI(openAPI);
@@ -54,6 +56,17 @@ public class ClientOptInput {
         return this;
     }
 
+    /**
+     * Sets the snapshot cache entry of the specification, used to skip parsing and processing the spec on later runs.
+     *
+     * @param specSnapshotCache the cache entry, or null if the spec snapshot cache isn't used
+     * @return this input
+     */
+    public ClientOptInput specSnapshotCache(SpecSnapshotCache specSnapshotCache) {
+        this.specSnapshotCache = specSnapshotCache;
+        return this;
+    }
+
     @Deprecated
     public ClientOptInput auth(String urlEncodedAuthString) {
         this.setAuth(urlEncodedAuthString);
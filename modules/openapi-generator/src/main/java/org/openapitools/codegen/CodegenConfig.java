@@ -24,6 +24,7 @@ import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.servers.ServerVariable;
+import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.meta.FeatureSet;
 import org.openapitools.codegen.meta.GeneratorMetadata;
@@ -31,6 +32,7 @@ import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationsMap;
 import org.openapitools.codegen.model.WebhooksMap;
+import org.openapitools.codegen.templating.TemplateVariableUsage;
 
 import java.io.File;
 import java.util.List;
@@ -256,6 +258,23 @@ public interface CodegenConfig {
 
     void setSkipOperationExample(boolean skipOperationExample);
 
+    TemplateVariableUsage getTemplateVariableUsage();
+
+    void setTemplateVariableUsage(TemplateVariableUsage templateVariableUsage);
+
+    /**
+     * Returns the number of entries of the caches built while processing the document, keyed by cache name.
+     *
+     * @return the cache sizes
+     */
+    Map<String, Integer> getCacheSizes();
+
+    /**
+     * Releases the caches built while processing the document, e.g. when running short of memory.
+     * The caches are rebuilt on demand.
+     */
+    void clearCaches();
+
     boolean isSkipSortingOperations();
 
     void setSkipSortingOperations(boolean skipSortingOperations);
@@ -328,6 +347,17 @@ public interface CodegenConfig {
 
     TemplatingEngineAdapter getTemplatingEngine();
 
+    /**
+     * Set the processor writing the files of the generation, through which files created by the generator itself
+     * (rather than from a template) are written as well, e.g. so that they're compared rather than written when
+     * verifying the output.
+     *
+     * @param templateProcessor the template processor of the generation
+     */
+    void setTemplateProcessor(TemplateProcessor templateProcessor);
+
+    TemplateProcessor getTemplateProcessor();
+
     public boolean isEnableMinimalUpdate();
 
     public void setEnableMinimalUpdate(boolean isEnableMinimalUpdate);
@@ -19,9 +19,18 @@ package org.openapitools.codegen;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CodegenConfigLoader {
+    /**
+     * Generator name -> class of the first generator with that name found by the {@link ServiceLoader}. Finding a
+     * generator by name instantiates all the generators listed before it, so later lookups in the same JVM (batch
+     * generation, generation daemon, ...) instantiate the known class directly.
+     */
+    private static final Map<String, Class<? extends CodegenConfig>> GENERATOR_CLASSES = new ConcurrentHashMap<>();
+
     /**
      * Tries to load config class with SPI first, then with class name directly from classpath
      *
@@ -29,11 +38,21 @@ public class CodegenConfigLoader {
      * @return config class
      */
     public static CodegenConfig forName(String name) {
+        Class<? extends CodegenConfig> known = GENERATOR_CLASSES.get(name);
+        if (known != null) {
+            try {
+                return known.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                // fall back to the service loader
+            }
+        }
+
         ServiceLoader<CodegenConfig> loader = ServiceLoader.load(CodegenConfig.class, CodegenConfig.class.getClassLoader());
 
         StringBuilder availableConfigs = new StringBuilder();
 
         for (CodegenConfig config : loader) {
+            GENERATOR_CLASSES.putIfAbsent(config.getName(), config.getClass());
             if (config.getName().equals(name)) {
                 return config;
             }
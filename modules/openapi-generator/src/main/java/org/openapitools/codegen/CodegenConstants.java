@@ -34,6 +34,11 @@ public class CodegenConstants {
     public static final String API_DOCS = "apiDocs";
 
     public static final String SKIP_FORM_MODEL = "skipFormModel";
+    public static final String COMPACT_MODELS = "compactModels";
+    public static final String MEMORY_REPORT = "memoryReport";
+    public static final String MEMORY_BUDGET = "memoryBudget";
+    public static final String SPEC_SNAPSHOT_CACHE = "specSnapshotCache";
+    public static final String PARALLEL_SUPPORTING_FILES = "parallelSupportingFiles";
     /* /end System Properties */
 
     public static final String API_NAME = "apiName";
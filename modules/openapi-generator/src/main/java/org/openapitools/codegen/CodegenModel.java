@@ -1171,39 +1171,40 @@ public class CodegenModel implements IJsonSchemaValidationProperties {
      * Remove duplicated properties in all variable list
      */
     public void removeAllDuplicatedProperty() {
+        removeAllDuplicatedProperty(false);
+    }
+
+    /**
+     * Remove duplicated properties in all variable list
+     *
+     * @param shareProperties if true, a property contained in several of the lists other than vars and allVars
+     *                        (requiredVars, optionalVars, readOnlyVars, ...) is cloned only once and the clone is
+     *                        shared by these lists. vars and allVars always hold their own clones, as they are
+     *                        post-processed independently of each other and of the other lists.
+     */
+    public void removeAllDuplicatedProperty(boolean shareProperties) {
+        Map<CodegenProperty, CodegenProperty> clones = shareProperties ? new IdentityHashMap<>() : null;
         // remove duplicated properties
-        vars = removeDuplicatedProperty(vars);
-        optionalVars = removeDuplicatedProperty(optionalVars);
-        requiredVars = removeDuplicatedProperty(requiredVars);
-        parentVars = removeDuplicatedProperty(parentVars);
-        allVars = removeDuplicatedProperty(allVars);
-        nonNullableVars = removeDuplicatedProperty(nonNullableVars);
-        readOnlyVars = removeDuplicatedProperty(readOnlyVars);
-        readWriteVars = removeDuplicatedProperty(readWriteVars);
-    }
-
-    private List<CodegenProperty> removeDuplicatedProperty(List<CodegenProperty> vars) {
-        // clone the list first
-        List<CodegenProperty> newList = new ArrayList<>();
+        vars = removeDuplicatedProperty(vars, null);
+        optionalVars = removeDuplicatedProperty(optionalVars, clones);
+        requiredVars = removeDuplicatedProperty(requiredVars, clones);
+        parentVars = removeDuplicatedProperty(parentVars, clones);
+        allVars = removeDuplicatedProperty(allVars, null);
+        nonNullableVars = removeDuplicatedProperty(nonNullableVars, clones);
+        readOnlyVars = removeDuplicatedProperty(readOnlyVars, clones);
+        readWriteVars = removeDuplicatedProperty(readWriteVars, clones);
+    }
+
+    private List<CodegenProperty> removeDuplicatedProperty(List<CodegenProperty> vars,
+                                                           Map<CodegenProperty, CodegenProperty> clones) {
+        // clone the list, keeping the first property of a given name
+        List<CodegenProperty> newList = new ArrayList<>(vars.size());
+        Set<String> propertyNames = new HashSet<>();
         for (CodegenProperty cp : vars) {
-            newList.add(cp.clone());
-        }
-
-        Set<String> propertyNames = new TreeSet<>();
-        Set<String> duplicatedNames = new TreeSet<>();
-
-        ListIterator<CodegenProperty> iterator = newList.listIterator();
-        while (iterator.hasNext()) {
-            CodegenProperty element = iterator.next();
-
-            if (propertyNames.contains(element.baseName)) {
-                duplicatedNames.add(element.baseName);
-                iterator.remove();
-            } else {
-                propertyNames.add(element.baseName);
+            if (propertyNames.add(cp.baseName)) {
+                newList.add(clones == null ? cp.clone() : clones.computeIfAbsent(cp, CodegenProperty::clone));
             }
         }
-
         return newList;
     }
 
@@ -44,10 +44,13 @@ import io.swagger.v3.oas.models.servers.ServerVariable;
 import io.swagger.v3.parser.util.SchemaTypeUtil;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.function.IOConsumer;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.text.StringEscapeUtils;
 import org.openapitools.codegen.CodegenDiscriminator.MappedModel;
+import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.config.GlobalSettings;
 import org.openapitools.codegen.examples.ExampleGenerator;
@@ -63,8 +66,10 @@ import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationsMap;
 import org.openapitools.codegen.model.WebhooksMap;
+import org.openapitools.codegen.model.SupportingFilesBundle;
 import org.openapitools.codegen.serializer.SerializerUtils;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
+import org.openapitools.codegen.templating.TemplateVariableUsage;
 import org.openapitools.codegen.templating.mustache.*;
 import org.openapitools.codegen.utils.ExamplesUtils;
 import org.openapitools.codegen.utils.ModelUtils;
@@ -72,10 +77,13 @@ import org.openapitools.codegen.utils.OneOfImplementorAdditionalData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.Map.Entry;
@@ -242,6 +250,14 @@ public class DefaultCodegen implements CodegenConfig {
     @Setter
     protected int removeOperationIdPrefixCount = 1;
     protected boolean skipOperationExample;
+    // names referenced by the templates, used to skip computing values no template reads
+    @Getter
+    @Setter
+    protected TemplateVariableUsage templateVariableUsage = TemplateVariableUsage.ALL;
+    // if true, the property lists of a model (vars, allVars, requiredVars, ...) share their CodegenProperty instances
+    @Getter
+    @Setter
+    protected boolean shareModelProperties = Boolean.parseBoolean(GlobalSettings.getProperty(CodegenConstants.COMPACT_MODELS));
     // sort operations by default
     protected boolean skipSortingOperations = false;
 
@@ -312,6 +328,8 @@ public class DefaultCodegen implements CodegenConfig {
     // flag to indicate whether to use environment variable to post process file
     protected boolean enablePostProcessFile = false;
     private TemplatingEngineAdapter templatingEngine = new MustacheEngineAdapter();
+    // writes the files created by the generator itself, when set by the generation
+    private TemplateProcessor templateProcessor;
     // flag to indicate whether to use the utils.OneOfImplementorAdditionalData related logic
     protected boolean useOneOfInterfaces = false;
     // whether or not the oneOf imports machinery should add oneOf interfaces as imports in implementing classes
@@ -623,6 +641,22 @@ public class DefaultCodegen implements CodegenConfig {
         return modelNameToSchemaCache;
     }
 
+    @Override
+    public Map<String, Integer> getCacheSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put("schemaCodegenPropertyCache", schemaCodegenPropertyCache.size());
+        sizes.put("schemaKeyToModelNameCache", schemaKeyToModelNameCache.size());
+        sizes.put("modelNameToSchemaCache", modelNameToSchemaCache == null ? 0 : modelNameToSchemaCache.size());
+        return sizes;
+    }
+
+    @Override
+    public void clearCaches() {
+        schemaCodegenPropertyCache.clear();
+        schemaKeyToModelNameCache.clear();
+        modelNameToSchemaCache = null;
+    }
+
     /**
      * Index all CodegenModels by model name.
      *
@@ -851,36 +885,15 @@ public class DefaultCodegen implements CodegenConfig {
 
             // update codegen property enum with proper naming convention
             // and handling of numbers, special characters
-            for (CodegenProperty var : cm.vars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.allVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.nonNullableVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.requiredVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.optionalVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.parentVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.readOnlyVars) {
-                updateCodegenPropertyEnum(var);
-            }
-
-            for (CodegenProperty var : cm.readWriteVars) {
-                updateCodegenPropertyEnum(var);
+            // with shareModelProperties, a property shared by several lists is updated once
+            Set<CodegenProperty> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<CodegenProperty> vars : Arrays.asList(cm.vars, cm.allVars, cm.nonNullableVars, cm.requiredVars,
+                    cm.optionalVars, cm.parentVars, cm.readOnlyVars, cm.readWriteVars)) {
+                for (CodegenProperty var : vars) {
+                    if (!shareModelProperties || updated.add(var)) {
+                        updateCodegenPropertyEnum(var);
+                    }
+                }
             }
 
         }
@@ -1147,9 +1160,9 @@ public class DefaultCodegen implements CodegenConfig {
 
     // override with any special handling of the JMustache compiler
     @Override
-    @SuppressWarnings("unused")
     public Compiler processCompiler(Compiler compiler) {
-        return compiler;
+        // resolve the variables of the Codegen* objects once for all templates, not once per template
+        return compiler.withCollector(new SharedFetcherCollector());
     }
 
     // override with any special handling for the templating engine
@@ -3097,7 +3110,9 @@ public class DefaultCodegen implements CodegenConfig {
         m.classname = toModelName(name);
         m.classVarName = toVarName(name);
         m.classFilename = toModelFilename(name);
-        m.modelJson = Json.pretty(schema);
+        if (templateVariableUsage.isReferenced("modelJson")) {
+            m.modelJson = Json.pretty(schema);
+        }
         m.externalDocumentation = schema.getExternalDocs();
         if (schema.getExtensions() != null && !schema.getExtensions().isEmpty()) {
             m.getVendorExtensions().putAll(schema.getExtensions());
@@ -3161,7 +3176,7 @@ public class DefaultCodegen implements CodegenConfig {
         }
 
         // remove duplicated properties
-        m.removeAllDuplicatedProperty();
+        m.removeAllDuplicatedProperty(shareModelProperties);
 
         // set isDiscriminator on the discriminator property
         if (m.discriminator != null) {
@@ -4079,7 +4094,9 @@ public class DefaultCodegen implements CodegenConfig {
             property.example = "ERROR_TO_EXAMPLE_VALUE";
         }
 
-        property.jsonSchema = Json.pretty(Json.mapper().convertValue(p, TreeMap.class));
+        if (templateVariableUsage.isReferenced("jsonSchema")) {
+            property.jsonSchema = Json.pretty(Json.mapper().convertValue(p, TreeMap.class));
+        }
 
         if (p.getDeprecated() != null) {
             property.deprecated = p.getDeprecated();
@@ -5093,7 +5110,9 @@ public class DefaultCodegen implements CodegenConfig {
         if (examples != null && !examples.isEmpty())
             r.examples = unaliasExamples(examples);
 
-        r.jsonSchema = Json.pretty(response);
+        if (templateVariableUsage.isReferenced("jsonSchema")) {
+            r.jsonSchema = Json.pretty(response);
+        }
         if (response.getExtensions() != null && !response.getExtensions().isEmpty()) {
             r.vendorExtensions.putAll(response.getExtensions());
         }
@@ -5369,7 +5388,9 @@ public class DefaultCodegen implements CodegenConfig {
         if (parameter.getDeprecated() != null) {
             codegenParameter.isDeprecated = parameter.getDeprecated();
         }
-        codegenParameter.jsonSchema = Json.pretty(parameter);
+        if (templateVariableUsage.isReferenced("jsonSchema")) {
+            codegenParameter.jsonSchema = Json.pretty(parameter);
+        }
 
         if (GlobalSettings.getProperty("debugParser") != null) {
             LOGGER.info("working on Parameter {}", parameter.getName());
@@ -6687,6 +6708,59 @@ public class DefaultCodegen implements CodegenConfig {
         return this.templatingEngine;
     }
 
+    @Override
+    public void setTemplateProcessor(TemplateProcessor templateProcessor) {
+        this.templateProcessor = templateProcessor;
+    }
+
+    @Override
+    public TemplateProcessor getTemplateProcessor() {
+        return this.templateProcessor;
+    }
+
+    /**
+     * Writes a file created by the generator itself rather than from a template, through the template processor of
+     * the generation if any, so that it's handled like the other generated files (e.g. dry run, verification).
+     *
+     * @param filename the name of the file to write
+     * @param contents the contents of the file
+     * @return the file
+     * @throws IOException if the file can't be written
+     */
+    protected File writeGeneratedFile(String filename, byte[] contents) throws IOException {
+        if (templateProcessor != null) {
+            return templateProcessor.writeToFile(filename, contents);
+        }
+        File file = new File(filename);
+        FileUtils.writeByteArrayToFile(file, contents);
+        return file;
+    }
+
+    /**
+     * Like {@link #writeGeneratedFile(String, byte[])}, but streams the contents to the file rather than building them
+     * in memory, unless the template processor needs them all at once (e.g. when verifying).
+     *
+     * @param filename the name of the file to write
+     * @param contents writes the contents of the file to the given stream, without closing it
+     * @return the file
+     * @throws IOException if the file can't be written
+     */
+    protected File writeGeneratedFile(String filename, IOConsumer<OutputStream> contents) throws IOException {
+        if (templateProcessor instanceof TemplateManager) {
+            return ((TemplateManager) templateProcessor).writeToFile(filename, contents);
+        }
+        if (templateProcessor != null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            contents.accept(buffer);
+            return templateProcessor.writeToFile(filename, buffer.toByteArray());
+        }
+        File file = new File(filename);
+        try (OutputStream out = new BufferedOutputStream(FileUtils.openOutputStream(file))) {
+            contents.accept(out);
+        }
+        return file;
+    }
+
     /**
      * Sanitize name (parameter, property, method, etc)
      *
@@ -7644,7 +7718,9 @@ public class DefaultCodegen implements CodegenConfig {
         codegenParameter.isFormParam = Boolean.TRUE;
         codegenParameter.description = escapeText(codegenProperty.description);
         codegenParameter.unescapedDescription = codegenProperty.getDescription();
-        codegenParameter.jsonSchema = Json.pretty(propertySchema);
+        if (templateVariableUsage.isReferenced("jsonSchema")) {
+            codegenParameter.jsonSchema = Json.pretty(propertySchema);
+        }
         codegenParameter.containerType = codegenProperty.containerType;
         codegenParameter.containerTypeMapped = codegenProperty.containerTypeMapped;
 
@@ -8289,7 +8365,7 @@ public class DefaultCodegen implements CodegenConfig {
     }
 
     private void addJsonSchemaForBodyRequestInCaseItsNotPresent(CodegenParameter codegenParameter, RequestBody body) {
-        if (codegenParameter.jsonSchema == null)
+        if (codegenParameter.jsonSchema == null && templateVariableUsage.isReferenced("jsonSchema"))
             codegenParameter.jsonSchema = Json.pretty(body);
     }
 
@@ -8338,7 +8414,13 @@ public class DefaultCodegen implements CodegenConfig {
      */
     protected void generateJSONSpecFile(Map<String, Object> objs) {
         OpenAPI openAPI = (OpenAPI) objs.get("openAPI");
-        if (openAPI != null) {
+        if (openAPI == null) {
+            return;
+        }
+        if (objs instanceof SupportingFilesBundle) {
+            // only serialize the spec if a template asks for it
+            ((SupportingFilesBundle) objs).putLazy("openapi-json", () -> SerializerUtils.toJsonString(openAPI));
+        } else {
             objs.put("openapi-json", SerializerUtils.toJsonString(openAPI));
         }
     }
@@ -8350,6 +8432,11 @@ public class DefaultCodegen implements CodegenConfig {
      */
     public void generateYAMLSpecFile(Map<String, Object> objs) {
         OpenAPI openAPI = (OpenAPI) objs.get("openAPI");
+        if (objs instanceof SupportingFilesBundle) {
+            // only serialize the spec if a template asks for it
+            ((SupportingFilesBundle) objs).putLazy("openapi-yaml", () -> SerializerUtils.toYamlString(openAPI));
+            return;
+        }
         String yaml = SerializerUtils.toYamlString(openAPI);
         if (yaml != null) {
             objs.put("openapi-yaml", yaml);
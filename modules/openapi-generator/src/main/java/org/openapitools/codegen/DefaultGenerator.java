@@ -17,6 +17,7 @@
 
 package org.openapitools.codegen;
 
+import com.google.common.base.Suppliers;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.*;
 import io.swagger.v3.oas.models.info.Contact;
@@ -33,6 +34,7 @@ import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.api.*;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.config.SpecSnapshotCache;
 import org.openapitools.codegen.ignore.CodegenIgnoreProcessor;
 import org.openapitools.codegen.meta.GeneratorMetadata;
 import org.openapitools.codegen.meta.Stability;
@@ -42,6 +44,10 @@ import org.openapitools.codegen.templating.CommonTemplateContentLocator;
 import org.openapitools.codegen.templating.GeneratorTemplateContentLocator;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
+import org.openapitools.codegen.templating.TemplateVariableUsage;
+import org.openapitools.codegen.templating.mustache.CopyLambda;
+import org.openapitools.codegen.templating.mustache.OnChangeLambda;
+import org.openapitools.codegen.templating.mustache.PasteLambda;
 import org.openapitools.codegen.utils.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,10 +61,17 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.StringUtils.removeStart;
 import static org.openapitools.codegen.CodegenConstants.X_INTERNAL;
@@ -67,8 +80,10 @@ import static org.openapitools.codegen.utils.OnceLogger.once;
 @SuppressWarnings("rawtypes")
 public class DefaultGenerator implements Generator {
     private static final String METADATA_DIR = ".openapi-generator";
+    private static final String TEMPLATE_VARIABLE_ANALYSIS = "templateVariableAnalysis";
     protected final Logger LOGGER = LoggerFactory.getLogger(DefaultGenerator.class);
     private final boolean dryRun;
+    private boolean verifyOnly;
     protected CodegenConfig config;
     protected ClientOptInput opts;
     protected OpenAPI openAPI;
@@ -87,6 +102,10 @@ public class DefaultGenerator implements Generator {
     private String basePathWithoutHost;
     private String contextPath;
     private final Map<String, String> generatorPropertyDefaults = new HashMap<>();
+    private MemoryBudget memoryBudget = MemoryBudget.NONE;
+    // operation auth methods by security requirements, converted once per set of security schemes
+    private final Map<List<List<Map.Entry<String, List<String>>>>, Optional<List<CodegenSecurity>>> resolvedAuthMethods = new HashMap<>();
+    private Map<String, SecurityScheme> resolvedSecuritySchemes;
     /**
      * Retrieves an instance to the configured template processor, available after user-defined options are
      * applied via
@@ -134,12 +153,15 @@ public class DefaultGenerator implements Generator {
 
             TemplatePathLocator commonTemplateLocator = new CommonTemplateContentLocator();
             TemplatePathLocator generatorTemplateLocator = new GeneratorTemplateContentLocator(this.config);
-            this.templateProcessor = new TemplateManager(
-                    templateManagerOptions,
-                    templatingEngine,
-                    new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator}
-            );
+            TemplatePathLocator[] templateLoaders = new TemplatePathLocator[]{generatorTemplateLocator, commonTemplateLocator};
+            if (this.verifyOnly) {
+                this.templateProcessor = new VerifyingTemplateManager(templateManagerOptions, templatingEngine, templateLoaders);
+            } else {
+                this.templateProcessor = new TemplateManager(templateManagerOptions, templatingEngine, templateLoaders);
+            }
         }
+        // for the files which the generator writes itself
+        this.config.setTemplateProcessor(this.templateProcessor);
 
         String ignoreFileLocation = this.config.getIgnoreFilePathOverride();
         if (ignoreFileLocation != null) {
@@ -169,6 +191,24 @@ public class DefaultGenerator implements Generator {
         this.generateMetadata = generateMetadata;
     }
 
+    /**
+     * Renders the files in memory and compares them with the files in the output directory, instead of writing them.
+     * The differences are available from the {@link VerifyingTemplateManager} returned by {@link #getTemplateProcessor()}
+     * once generated. Call this method <b><u>before</u></b> calling {@link #opts(ClientOptInput)}.
+     *
+     * @param verifyOnly true: compare the files, false: write them
+     */
+    public void setVerifyOnly(boolean verifyOnly) {
+        this.verifyOnly = verifyOnly;
+    }
+
+    /**
+     * @return whether the generation writes to the output directory, rather than being a dry run or a verification
+     */
+    private boolean writesFiles() {
+        return !dryRun && !verifyOnly;
+    }
+
     /**
      * Set generator properties otherwise pulled from system properties.
      * Useful for running tests in parallel without relying on System.properties.
@@ -256,27 +296,57 @@ public class DefaultGenerator implements Generator {
             config.importMapping().putAll(opts.getGeneratorSettings().getImportMappings());
         }
 
+        boolean normalize = config.getUseOpenapiNormalizer();
+        try {
+            if (normalize && new SemVer(openAPI.getOpenapi()).atLeast("3.1.0")) {
+                config.openapiNormalizer().put("NORMALIZE_31SPEC", "true");
+            }
+        } catch (Exception e) {
+            LOGGER.error("An exception occurred in OpenAPI Normalizer. Please report the issue via https://github.com/openapitools/openapi-generator/issues/new/: ", e);
+            normalize = false;
+        }
+
+        // a snapshot of the spec loaded by the configurator is already normalized and flattened
+        SpecSnapshotCache specSnapshotCache = opts == null ? null : opts.getSpecSnapshotCache();
+        String processingKey = specSnapshotCache == null ? null : SpecSnapshotCache.processingKey(config);
+        if (specSnapshotCache != null && specSnapshotCache.isProcessedWithOtherSettings(processingKey)) {
+            LOGGER.info("The spec snapshot has been processed with other settings, parsing {}", config.getInputSpec());
+            openAPI = specSnapshotCache.parse();
+        }
+        boolean fromSnapshot = specSnapshotCache != null && specSnapshotCache.isProcessed(processingKey);
+        // a spec whose normalization failed isn't processed as the processing key says
+        boolean storeSnapshot = specSnapshotCache != null && !specSnapshotCache.isLoaded()
+                && normalize == config.getUseOpenapiNormalizer();
+        if (storeSnapshot && !SpecSnapshotCache.isProcessable(openAPI)) {
+            specSnapshotCache.store(null, openAPI);
+            storeSnapshot = false;
+        }
+
         // normalize the spec
         try {
-            if (config.getUseOpenapiNormalizer()) {
-                SemVer version = new SemVer(openAPI.getOpenapi());
-                if (version.atLeast("3.1.0")) {
-                    config.openapiNormalizer().put("NORMALIZE_31SPEC", "true");
-                }
+            if (normalize && !fromSnapshot) {
                 OpenAPINormalizer openapiNormalizer = OpenAPINormalizer.createNormalizer(openAPI, config.openapiNormalizer());
                 openapiNormalizer.normalize();
+                memoryBudget.sample("normalize", schemaCount());
             }
         } catch (Exception e) {
             LOGGER.error("An exception occurred in OpenAPI Normalizer. Please report the issue via https://github.com/openapitools/openapi-generator/issues/new/: ", e);
+            // the spec may be partially normalized
+            storeSnapshot = false;
         }
 
         // resolve inline models
-        if (config.getUseInlineModelResolver()) {
+        if (config.getUseInlineModelResolver() && !fromSnapshot) {
             InlineModelResolver inlineModelResolver = new InlineModelResolver();
             inlineModelResolver.setInlineSchemaNameMapping(config.inlineSchemaNameMapping());
             inlineModelResolver.setInlineSchemaOptions(config.inlineSchemaOption());
 
             inlineModelResolver.flatten(openAPI);
+            memoryBudget.sample("flatten", schemaCount());
+        }
+
+        if (storeSnapshot) {
+            specSnapshotCache.store(processingKey, openAPI);
         }
 
         config.preprocessOpenAPI(openAPI);
@@ -392,7 +462,7 @@ public class DefaultGenerator implements Generator {
                     File written = processTemplateToFile(models, templateName, filename, generateModelTests, CodegenConstants.MODEL_TESTS, config.modelTestFileFolder());
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "model-test");
                         }
                     }
@@ -413,7 +483,7 @@ public class DefaultGenerator implements Generator {
             File written = processTemplateToFile(models, templateName, filename, generateModelDocumentation, CodegenConstants.MODEL_DOCS);
             if (written != null) {
                 files.add(written);
-                if (config.isEnablePostProcessFile() && !dryRun) {
+                if (config.isEnablePostProcessFile() && writesFiles()) {
                     config.postProcessFile(written, "model-doc");
                 }
             }
@@ -433,7 +503,7 @@ public class DefaultGenerator implements Generator {
             }
             if (written != null) {
                 files.add(written);
-                if (config.isEnablePostProcessFile() && !dryRun) {
+                if (config.isEnablePostProcessFile() && writesFiles()) {
                     config.postProcessFile(written, "model");
                 }
             }
@@ -465,6 +535,7 @@ public class DefaultGenerator implements Generator {
 
         // process models only
         for (String name : modelKeys) {
+            checkInterrupted();
             processedModels.add(name);
             try {
                 //don't generate models that have an import mapping
@@ -525,6 +596,7 @@ public class DefaultGenerator implements Generator {
 
         // post process all processed models
         allProcessedModels = config.postProcessAllModels(allProcessedModels);
+        memoryBudget.sample("model processing", Collections.singletonMap("processedModels", allProcessedModels.size()));
 
         if (generateRecursiveDependentModels) {
             for (ModelsMap modelsMap : allProcessedModels.values()) {
@@ -544,9 +616,18 @@ public class DefaultGenerator implements Generator {
             }
         }
 
-        // generate files based on processed models
-        for (String modelName : allProcessedModels.keySet()) {
-            ModelsMap models = allProcessedModels.get(modelName);
+        // generate files based on processed models. Those may be released once generated, from a map of our own: the
+        // generator may have returned an unmodifiable or shared map
+        Map<String, ModelsMap> pendingModels = memoryBudget.isEnabled() ? new LinkedHashMap<>(allProcessedModels) : allProcessedModels;
+        allProcessedModels = null;
+        for (Iterator<Map.Entry<String, ModelsMap>> it = pendingModels.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, ModelsMap> entry = it.next();
+            String modelName = entry.getKey();
+            ModelsMap models = entry.getValue();
+            if (memoryBudget.isExceeded()) {
+                // the model (kept in allModels) is all later phases need, release the rest of its template data
+                it.remove();
+            }
             models.put("modelPackage", config.modelPackage());
             try {
                 //don't generate models that have a schema mapping
@@ -683,6 +764,7 @@ public class DefaultGenerator implements Generator {
             paths = updatedPaths;
         }
         for (String tag : paths.keySet()) {
+            checkInterrupted();
             try {
                 List<CodegenOperation> ops = paths.get(tag);
                 if (!this.config.isSkipSortingOperations()) {
@@ -780,7 +862,7 @@ public class DefaultGenerator implements Generator {
                     }
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "api");
                         }
                     }
@@ -797,7 +879,7 @@ public class DefaultGenerator implements Generator {
                         File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
                         if (written != null) {
                             files.add(written);
-                            if (config.isEnablePostProcessFile() && !dryRun) {
+                            if (config.isEnablePostProcessFile() && writesFiles()) {
                                 config.postProcessFile(written, "api-test");
                             }
                         }
@@ -810,7 +892,7 @@ public class DefaultGenerator implements Generator {
                     File written = processTemplateToFile(operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS);
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "api-doc");
                         }
                     }
@@ -939,7 +1021,7 @@ public class DefaultGenerator implements Generator {
                     }
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "api");
                         }
                     }
@@ -956,7 +1038,7 @@ public class DefaultGenerator implements Generator {
                         File written = processTemplateToFile(operation, templateName, filename, generateApiTests, CodegenConstants.API_TESTS, config.apiTestFileFolder());
                         if (written != null) {
                             files.add(written);
-                            if (config.isEnablePostProcessFile() && !dryRun) {
+                            if (config.isEnablePostProcessFile() && writesFiles()) {
                                 config.postProcessFile(written, "api-test");
                             }
                         }
@@ -969,7 +1051,7 @@ public class DefaultGenerator implements Generator {
                     File written = processTemplateToFile(operation, templateName, filename, generateApiDocumentation, CodegenConstants.API_DOCS);
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "api-doc");
                         }
                     }
@@ -1005,12 +1087,6 @@ public class DefaultGenerator implements Generator {
         File ignoreFile = new File(ignoreFileNameTarget);
         // use the entries provided by the users to pre-populate .openapi-generator-ignore
         try {
-            LOGGER.info("Writing file {} (which is always overwritten when the option `openapiGeneratorIgnoreFile` is enabled.)", ignoreFileNameTarget);
-            new File(config.outputFolder()).mkdirs();
-            if (!ignoreFile.createNewFile()) {
-                // file may already exist, do nothing
-            }
-
             String header = String.join("\n",
                     "# IMPORTANT: this file is generated with the option `openapiGeneratorIgnoreList` enabled",
                     "# (--openapi-generator-ignore-list in CLI for example) so the entries below are pre-populated based",
@@ -1045,6 +1121,18 @@ public class DefaultGenerator implements Generator {
                     "# The following entries are pre-populated based on the input obtained via",
                     "# the option `openapiGeneratorIgnoreList` (--openapi-generator-ignore-list in CLI for example).",
                     "");
+            if (verifyOnly) {
+                // compared with the existing file, whose entries the ignore processor uses
+                StringBuilder contents = new StringBuilder(header);
+                config.getOpenapiGeneratorIgnoreList().forEach(entry -> contents.append(entry).append("\n"));
+                this.templateProcessor.writeToFile(ignoreFileNameTarget, contents.toString().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            LOGGER.info("Writing file {} (which is always overwritten when the option `openapiGeneratorIgnoreFile` is enabled.)", ignoreFileNameTarget);
+            new File(config.outputFolder()).mkdirs();
+            if (!ignoreFile.createNewFile()) {
+                // file may already exist, do nothing
+            }
             Writer fileWriter = Files.newBufferedWriter(ignoreFile.toPath(), StandardCharsets.UTF_8);
             fileWriter.write(header);
             // add entries provided by the users
@@ -1068,39 +1156,17 @@ public class DefaultGenerator implements Generator {
         }
 
         Set<String> supportingFilesToGenerate = getPropertyAsSet(CodegenConstants.SUPPORTING_FILES);
-        for (SupportingFile support : config.supportingFiles()) {
-            try {
-                String outputFolder = config.outputFolder();
-                if (StringUtils.isNotEmpty(support.getFolder())) {
-                    outputFolder += File.separator + support.getFolder();
-                }
-                File of = new File(outputFolder);
-                String outputFilename = new File(support.getDestinationFilename()).isAbsolute() // split
-                        ? support.getDestinationFilename()
-                        : outputFolder + File.separator + support.getDestinationFilename().replace('/', File.separatorChar);
-
-                if (!of.isDirectory()) {
-                    // check that its not a dryrun and the files in the directory aren't ignored before we make the directory
-                    if (!dryRun && ignoreProcessor.allowsFile(new File(outputFilename)) && !of.mkdirs()) {
-                        once(LOGGER).debug("Output directory {} not created. It {}.", outputFolder, of.exists() ? "already exists." : "may not have appropriate permissions.");
-                    }
-                }
-
-
-                boolean shouldGenerate = true;
-                if (supportingFilesToGenerate != null && !supportingFilesToGenerate.isEmpty()) {
-                    shouldGenerate = supportingFilesToGenerate.contains(support.getDestinationFilename());
-                }
-
-                File written = processTemplateToFile(bundle, support.getTemplateFile(), outputFilename, shouldGenerate, CodegenConstants.SUPPORTING_FILES);
-                if (written != null) {
-                    files.add(written);
-                    if (config.isEnablePostProcessFile() && !dryRun) {
-                        config.postProcessFile(written, "supporting-file");
-                    }
+        if (Boolean.parseBoolean(GlobalSettings.getProperty(CodegenConstants.PARALLEL_SUPPORTING_FILES))
+                && canRenderSupportingFilesInParallel()) {
+            generateSupportingFilesInParallel(files, bundle, supportingFilesToGenerate);
+        } else {
+            for (SupportingFile support : config.supportingFiles()) {
+                try {
+                    File written = processSupportingFile(bundle, support, supportingFilesToGenerate);
+                    addSupportingFile(files, written);
+                } catch (Exception e) {
+                    throw new RuntimeException("Could not generate supporting file '" + support + "'", e);
                 }
-            } catch (Exception e) {
-                throw new RuntimeException("Could not generate supporting file '" + support + "'", e);
             }
         }
 
@@ -1120,7 +1186,7 @@ public class DefaultGenerator implements Generator {
                     File written = processTemplateToFile(bundle, openapiGeneratorIgnore, ignoreFileNameTarget, shouldGenerate, CodegenConstants.SUPPORTING_FILES);
                     if (written != null) {
                         files.add(written);
-                        if (config.isEnablePostProcessFile() && !dryRun) {
+                        if (config.isEnablePostProcessFile() && writesFiles()) {
                             config.postProcessFile(written, "openapi-generator-ignore");
                         }
                     }
@@ -1135,13 +1201,122 @@ public class DefaultGenerator implements Generator {
         generateVersionMetadata(files);
     }
 
+    private String supportingFileOutputFolder(SupportingFile support) {
+        String outputFolder = config.outputFolder();
+        if (StringUtils.isNotEmpty(support.getFolder())) {
+            outputFolder += File.separator + support.getFolder();
+        }
+        return outputFolder;
+    }
+
+    private String supportingFileOutputFilename(SupportingFile support) {
+        return new File(support.getDestinationFilename()).isAbsolute() // split
+                ? support.getDestinationFilename()
+                : supportingFileOutputFolder(support) + File.separator + support.getDestinationFilename().replace('/', File.separatorChar);
+    }
+
+    private File processSupportingFile(Map<String, Object> bundle, SupportingFile support, Set<String> supportingFilesToGenerate) throws IOException {
+        String outputFolder = supportingFileOutputFolder(support);
+        File of = new File(outputFolder);
+        String outputFilename = supportingFileOutputFilename(support);
+
+        if (!of.isDirectory()) {
+            // check that its not a dryrun and the files in the directory aren't ignored before we make the directory
+            if (writesFiles() && ignoreProcessor.allowsFile(new File(outputFilename)) && !of.mkdirs()) {
+                once(LOGGER).debug("Output directory {} not created. It {}.", outputFolder, of.exists() ? "already exists." : "may not have appropriate permissions.");
+            }
+        }
+
+        boolean shouldGenerate = true;
+        if (supportingFilesToGenerate != null && !supportingFilesToGenerate.isEmpty()) {
+            shouldGenerate = supportingFilesToGenerate.contains(support.getDestinationFilename());
+        }
+
+        return processTemplateToFile(bundle, support.getTemplateFile(), outputFilename, shouldGenerate, CodegenConstants.SUPPORTING_FILES);
+    }
+
+    private void addSupportingFile(List<File> files, File written) {
+        if (written != null) {
+            files.add(written);
+            if (config.isEnablePostProcessFile() && writesFiles()) {
+                config.postProcessFile(written, "supporting-file");
+            }
+        }
+    }
+
+    /**
+     * Stops a generation whose thread was interrupted, e.g. a batch generation which timed out or was cancelled.
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new RuntimeException(new InterruptedException("Generation interrupted"));
+        }
+    }
+
+    /**
+     * Supporting files are only rendered in parallel if the result can't depend on the order they are rendered in:
+     * not in a dry run (which records the files in order), not with lambdas keeping state between invocations
+     * (copy/paste, onchange), and not if two supporting files are written to the same path.
+     */
+    private boolean canRenderSupportingFilesInParallel() {
+        if (dryRun || config.supportingFiles().size() < 2) {
+            return false;
+        }
+        Object lambdas = config.additionalProperties().get("lambda");
+        if (lambdas instanceof Map && ((Map<?, ?>) lambdas).values().stream().anyMatch(lambda ->
+                lambda instanceof CopyLambda || lambda instanceof PasteLambda || lambda instanceof OnChangeLambda)) {
+            LOGGER.info("Rendering supporting files sequentially, as the templates of {} use stateful lambdas.", config.getName());
+            return false;
+        }
+        Set<String> targets = new HashSet<>();
+        for (SupportingFile support : config.supportingFiles()) {
+            if (!targets.add(supportingFileOutputFilename(support).toLowerCase(Locale.ROOT))) {
+                LOGGER.info("Rendering supporting files sequentially, as several of them are written to {}.", supportingFileOutputFilename(support));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Renders the supporting files concurrently over the (read-only) supporting files bundle. The rendered files are
+     * added to the generated files, and post-processed, in the order the generator lists them, so the metadata stays
+     * identical to a sequential run.
+     */
+    private void generateSupportingFilesInParallel(List<File> files, Map<String, Object> bundle, Set<String> supportingFilesToGenerate) {
+        List<SupportingFile> supportingFiles = new ArrayList<>(config.supportingFiles());
+        // threads are created by the generating thread, so they inherit its global settings
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(supportingFiles.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<File>> rendered = new ArrayList<>();
+            for (SupportingFile support : supportingFiles) {
+                rendered.add(executor.submit(() -> processSupportingFile(bundle, support, supportingFilesToGenerate)));
+            }
+            for (int i = 0; i < supportingFiles.size(); i++) {
+                SupportingFile support = supportingFiles.get(i);
+                try {
+                    addSupportingFile(files, rendered.get(i).get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Could not generate supporting file '" + support + "'", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while generating supporting file '" + support + "'", e);
+                } catch (Exception e) {
+                    throw new RuntimeException("Could not generate supporting file '" + support + "'", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     Map<String, Object> buildSupportFileBundle(List<OperationsMap> allOperations, List<ModelMap> allModels, List<ModelMap> aliasModels) {
         return this.buildSupportFileBundle(allOperations, allModels, aliasModels, null);
     }
 
     Map<String, Object> buildSupportFileBundle(List<OperationsMap> allOperations, List<ModelMap> allModels, List<ModelMap> aliasModels, List<WebhooksMap> allWebhooks) {
 
-        Map<String, Object> bundle = new HashMap<>(config.additionalProperties());
+        SupportingFilesBundle bundle = new SupportingFilesBundle(config.additionalProperties());
         bundle.put("apiPackage", config.apiPackage());
 
         ApiInfoMap apis = new ApiInfoMap();
@@ -1170,17 +1345,21 @@ public class DefaultGenerator implements Generator {
 
         addAuthenticationSwitches(bundle);
 
-        List<CodegenServer> servers = config.fromServers(openAPI.getServers());
-        if (servers != null && !servers.isEmpty()) {
-            servers.forEach(server -> server.url = removeTrailingSlash(server.url));
-            bundle.put("servers", servers);
-            bundle.put("hasServers", true);
-        }
+        // the values below are only computed if a supporting file (or the generator) asks for them
+        Supplier<List<CodegenServer>> servers = Suppliers.memoize(() -> {
+            List<CodegenServer> codegenServers = config.fromServers(openAPI.getServers());
+            if (codegenServers == null || codegenServers.isEmpty()) {
+                return null;
+            }
+            codegenServers.forEach(server -> server.url = removeTrailingSlash(server.url));
+            return codegenServers;
+        });
+        bundle.putLazy("servers", servers);
+        bundle.putLazy("hasServers", () -> servers.get() != null ? Boolean.TRUE : null);
 
-        boolean hasOperationServers = allOperations != null && allOperations.stream()
+        bundle.putLazy("hasOperationServers", () -> allOperations != null && allOperations.stream()
                 .flatMap(om -> om.getOperations().getOperation().stream())
-                .anyMatch(o -> o.servers != null && !o.servers.isEmpty());
-        bundle.put("hasOperationServers", hasOperationServers);
+                .anyMatch(o -> o.servers != null && !o.servers.isEmpty()));
 
         if (openAPI.getExternalDocs() != null) {
             bundle.put("externalDocs", openAPI.getExternalDocs());
@@ -1203,6 +1382,7 @@ public class DefaultGenerator implements Generator {
     /**
      * Add authentication methods to the given map
      * This adds a boolean and a collection for each authentication type to the map.
+     * For a {@link SupportingFilesBundle}, the security schemes are only converted once one of these entries is looked up.
      * <p>
      * Examples:
      * <p>
@@ -1213,39 +1393,43 @@ public class DefaultGenerator implements Generator {
      * @param bundle the map which the booleans and collections will be added
      */
     void addAuthenticationSwitches(Map<String, Object> bundle) {
-        Map<String, SecurityScheme> securitySchemeMap = openAPI.getComponents() != null ? openAPI.getComponents().getSecuritySchemes() : null;
-        List<CodegenSecurity> authMethods = config.fromSecurity(securitySchemeMap);
-        if (authMethods != null && !authMethods.isEmpty()) {
-            bundle.put("authMethods", authMethods);
-            bundle.put("hasAuthMethods", true);
-
-            if (ProcessUtils.hasOAuthMethods(authMethods)) {
-                bundle.put("hasOAuthMethods", true);
-                bundle.put("oauthMethods", ProcessUtils.getOAuthMethods(authMethods));
-            }
-            if (ProcessUtils.hasOpenIdConnectMethods(authMethods)) {
-                bundle.put("hasOpenIdConnectMethods", true);
-                bundle.put("openIdConnectMethods", ProcessUtils.getOpenIdConnectMethods(authMethods));
-            }
-            if (ProcessUtils.hasHttpBearerMethods(authMethods)) {
-                bundle.put("hasHttpBearerMethods", true);
-                bundle.put("httpBearerMethods", ProcessUtils.getHttpBearerMethods(authMethods));
-            }
-            if (ProcessUtils.hasHttpSignatureMethods(authMethods)) {
-                bundle.put("hasHttpSignatureMethods", true);
-                bundle.put("httpSignatureMethods", ProcessUtils.getHttpSignatureMethods(authMethods));
-            }
-            if (ProcessUtils.hasHttpBasicMethods(authMethods)) {
-                bundle.put("hasHttpBasicMethods", true);
-                bundle.put("httpBasicMethods", ProcessUtils.getHttpBasicMethods(authMethods));
-            }
-            if (ProcessUtils.hasApiKeyMethods(authMethods)) {
-                bundle.put("hasApiKeyMethods", true);
-                bundle.put("apiKeyMethods", ProcessUtils.getApiKeyMethods(authMethods));
-            }
+        SupportingFilesBundle switches = bundle instanceof SupportingFilesBundle ? (SupportingFilesBundle) bundle : new SupportingFilesBundle();
+        Supplier<List<CodegenSecurity>> authMethods = Suppliers.memoize(() -> {
+            Map<String, SecurityScheme> securitySchemeMap = openAPI.getComponents() != null ? openAPI.getComponents().getSecuritySchemes() : null;
+            List<CodegenSecurity> methods = config.fromSecurity(securitySchemeMap);
+            return methods == null || methods.isEmpty() ? null : methods;
+        });
+        switches.putLazy("authMethods", authMethods);
+        switches.putLazy("hasAuthMethods", () -> authMethods.get() != null ? Boolean.TRUE : null);
+
+        addAuthenticationSwitch(switches, authMethods, "hasOAuthMethods", "oauthMethods",
+                ProcessUtils::hasOAuthMethods, ProcessUtils::getOAuthMethods);
+        addAuthenticationSwitch(switches, authMethods, "hasOpenIdConnectMethods", "openIdConnectMethods",
+                ProcessUtils::hasOpenIdConnectMethods, ProcessUtils::getOpenIdConnectMethods);
+        addAuthenticationSwitch(switches, authMethods, "hasHttpBearerMethods", "httpBearerMethods",
+                ProcessUtils::hasHttpBearerMethods, ProcessUtils::getHttpBearerMethods);
+        addAuthenticationSwitch(switches, authMethods, "hasHttpSignatureMethods", "httpSignatureMethods",
+                ProcessUtils::hasHttpSignatureMethods, ProcessUtils::getHttpSignatureMethods);
+        addAuthenticationSwitch(switches, authMethods, "hasHttpBasicMethods", "httpBasicMethods",
+                ProcessUtils::hasHttpBasicMethods, ProcessUtils::getHttpBasicMethods);
+        addAuthenticationSwitch(switches, authMethods, "hasApiKeyMethods", "apiKeyMethods",
+                ProcessUtils::hasApiKeyMethods, ProcessUtils::getApiKeyMethods);
+
+        if (switches != bundle) {
+            // plain maps get the switches right away
+            bundle.putAll(switches);
         }
     }
 
+    private static void addAuthenticationSwitch(SupportingFilesBundle bundle, Supplier<List<CodegenSecurity>> authMethods,
+                                                String flagKey, String methodsKey,
+                                                Predicate<List<CodegenSecurity>> hasMethods,
+                                                Function<List<CodegenSecurity>, List<CodegenSecurity>> getMethods) {
+        Supplier<Boolean> present = () -> authMethods.get() != null && hasMethods.test(authMethods.get());
+        bundle.putLazy(flagKey, () -> present.get() ? Boolean.TRUE : null);
+        bundle.putLazy(methodsKey, () -> present.get() ? getMethods.apply(authMethods.get()) : null);
+    }
+
     @Override
     public List<File> generate() {
         if (openAPI == null) {
@@ -1273,6 +1457,9 @@ public class DefaultGenerator implements Generator {
             }
         }
 
+        memoryBudget = MemoryBudget.fromGlobalSettings();
+        memoryBudget.sample("parse", schemaCount());
+
         configureGeneratorProperties();
         configureOpenAPIInfo();
 
@@ -1280,6 +1467,8 @@ public class DefaultGenerator implements Generator {
 
         processUserDefinedTemplates();
 
+        configureTemplateVariableUsage();
+
         // generate .openapi-generator-ignore if the option openapiGeneratorIgnoreFile is enabled
         generateOpenapiGeneratorIgnoreFile();
 
@@ -1289,15 +1478,23 @@ public class DefaultGenerator implements Generator {
         List<ModelMap> allModels = new ArrayList<>();
         List<ModelMap> aliasModels = new ArrayList<>();
         generateModels(files, allModels, filteredSchemas, aliasModels);
+        sampleMemory("models", allModels, Collections.emptyList(), Collections.emptyList());
         // apis
         List<OperationsMap> allOperations = new ArrayList<>();
         generateApis(files, allOperations, allModels);
+        sampleMemory("APIs", allModels, allOperations, Collections.emptyList());
         // webhooks
         List<WebhooksMap> allWebhooks = new ArrayList<>();
         generateWebhooks(files, allWebhooks, allModels);
+        if (sampleMemory("webhooks", allModels, allOperations, allWebhooks)) {
+            // the documents have been processed, drop the caches before rendering the supporting files
+            config.clearCaches();
+        }
         // supporting files
+        checkInterrupted();
         Map<String, Object> bundle = buildSupportFileBundle(allOperations, allModels, aliasModels, allWebhooks);
         generateSupportingFiles(files, bundle);
+        sampleMemory("supporting files", allModels, allOperations, allWebhooks);
 
         if (dryRun) {
             boolean verbose = Boolean.parseBoolean(GlobalSettings.getProperty("verbose"));
@@ -1352,6 +1549,63 @@ public class DefaultGenerator implements Generator {
         return files;
     }
 
+    private Map<String, Integer> schemaCount() {
+        return Collections.singletonMap("schemas", ModelUtils.getSchemas(openAPI).size());
+    }
+
+    /**
+     * Samples the heap usage after a phase of the generation, if enabled with the global property
+     * {@code memoryReport} or {@code memoryBudget}.
+     *
+     * @return true if the memory budget has been exceeded
+     */
+    private boolean sampleMemory(String phase, List<ModelMap> allModels, List<OperationsMap> allOperations, List<WebhooksMap> allWebhooks) {
+        if (!memoryBudget.isEnabled()) {
+            return false;
+        }
+        Map<String, Integer> structures = new LinkedHashMap<>();
+        structures.put("allModels", allModels.size());
+        structures.put("allOperations", allOperations.stream().mapToInt(o -> operationCount(o.getOperations())).sum());
+        structures.put("allWebhooks", allWebhooks.stream().mapToInt(w -> operationCount(w.getWebhooks())).sum());
+        structures.putAll(config.getCacheSizes());
+        return memoryBudget.sample(phase, structures);
+    }
+
+    private static int operationCount(OperationMap operations) {
+        return operations == null || operations.getOperation() == null ? 0 : operations.getOperation().size();
+    }
+
+    /**
+     * Scans the templates for the variables they reference, so the generator can skip computing values
+     * (e.g. jsonSchema dumps) which no template reads. Opt-in, as generators may also read these values in code.
+     */
+    private void configureTemplateVariableUsage() {
+        boolean enabled = Boolean.parseBoolean(GlobalSettings.getProperty(TEMPLATE_VARIABLE_ANALYSIS, "false"));
+        boolean debugging = Stream.of("debugModels", "debugOperations", "debugSupportingFiles")
+                .anyMatch(p -> GlobalSettings.getProperty(p) != null);
+        if (!enabled || debugging || !(templateProcessor instanceof TemplatingExecutor)) {
+            // debug output shows the complete objects
+            config.setTemplateVariableUsage(TemplateVariableUsage.ALL);
+            return;
+        }
+
+        Set<String> templateRoots = new LinkedHashSet<>();
+        templateRoots.add(config.templateDir());
+        templateRoots.add(config.embeddedTemplateDir());
+
+        Set<String> templateFiles = new LinkedHashSet<>();
+        templateFiles.addAll(config.modelTemplateFiles().keySet());
+        templateFiles.addAll(config.modelTestTemplateFiles().keySet());
+        templateFiles.addAll(config.modelDocTemplateFiles().keySet());
+        templateFiles.addAll(config.apiTemplateFiles().keySet());
+        templateFiles.addAll(config.apiTestTemplateFiles().keySet());
+        templateFiles.addAll(config.apiDocTemplateFiles().keySet());
+        config.supportingFiles().forEach(supportingFile -> templateFiles.add(supportingFile.getTemplateFile()));
+
+        config.setTemplateVariableUsage(TemplateVariableUsage.analyze((TemplatingExecutor) templateProcessor,
+                config.getTemplatingEngine(), templateRoots, config.getLibrary(), templateFiles));
+    }
+
     private void processUserDefinedTemplates() {
         // TODO: initial behavior is "merge" user defined with built-in templates. consider offering user a "replace" option.
         if (userDefinedTemplates != null && !userDefinedTemplates.isEmpty()) {
@@ -1432,7 +1686,7 @@ public class DefaultGenerator implements Generator {
     /**
      * Stores lowercased absolute paths for O(1) case-insensitive duplicate detection.
      */
-    private final Set<String> seenFilesLower = new HashSet<>();
+    private final Set<String> seenFilesLower = ConcurrentHashMap.newKeySet();
 
     private File processTemplateToFile(Map<String, Object> templateData, String templateName, String outputFilename, boolean shouldGenerate, String skippedByOption, String intendedOutputDir) throws IOException {
         String adjustedOutputFilename = outputFilename.replaceAll("//", "/").replace('/', File.separatorChar);
@@ -1581,20 +1835,8 @@ public class DefaultGenerator implements Generator {
                         continue;
                     }
 
-                    Map<String, SecurityScheme> authMethods = getAuthMethods(securities, securitySchemes);
-
-                    if (authMethods != null && !authMethods.isEmpty()) {
-                        List<CodegenSecurity> fullAuthMethods = config.fromSecurity(authMethods);
-                        codegenOperation.authMethods = filterAuthMethods(fullAuthMethods, securities);
-                        codegenOperation.hasAuthMethods = true;
-                    } else {
-                        authMethods = getAuthMethods(globalSecurities, securitySchemes);
-
-                        if (authMethods != null && !authMethods.isEmpty()) {
-                            List<CodegenSecurity> fullAuthMethods = config.fromSecurity(authMethods);
-                            codegenOperation.authMethods = filterAuthMethods(fullAuthMethods, globalSecurities);
-                            codegenOperation.hasAuthMethods = true;
-                        }
+                    if (!resolveAuthMethods(codegenOperation, securities, securitySchemes)) {
+                        resolveAuthMethods(codegenOperation, globalSecurities, securitySchemes);
                     }
                 }
             } catch (Exception ex) {
@@ -1790,6 +2032,86 @@ public class DefaultGenerator implements Generator {
         return objs;
     }
 
+    /**
+     * Sets the auth methods of an operation to the security schemes required by the given security requirements,
+     * filtered to the required scopes. Operations usually share a handful of security requirements, so the conversion
+     * is done once per distinct list of requirements.
+     *
+     * @param codegenOperation the operation
+     * @param securities       the security requirements of the operation, or the global ones
+     * @param securitySchemes  the security schemes of the spec
+     * @return false if none of the requirements refers to a security scheme, in which case the operation is unchanged
+     */
+    private boolean resolveAuthMethods(CodegenOperation codegenOperation, List<SecurityRequirement> securities,
+                                       Map<String, SecurityScheme> securitySchemes) {
+        if (securities == null || securitySchemes == null || securitySchemes.isEmpty()) {
+            return false;
+        }
+        if (resolvedSecuritySchemes != securitySchemes) {
+            resolvedAuthMethods.clear();
+            resolvedSecuritySchemes = securitySchemes;
+        }
+        // keyed on the schemes in their order, as map equality would ignore the order of the schemes of a requirement
+        List<List<Map.Entry<String, List<String>>>> key = securities.stream()
+                .map(requirement -> requirement == null ? null : requirement.entrySet().stream()
+                        .map(entry -> (Map.Entry<String, List<String>>) new AbstractMap.SimpleImmutableEntry<String, List<String>>(
+                                entry.getKey(), entry.getValue() == null ? null : new ArrayList<>(entry.getValue())))
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+
+        // null if none of the requirements refers to a security scheme, empty if the conversion returned null
+        Optional<List<CodegenSecurity>> resolved;
+        if (resolvedAuthMethods.containsKey(key)) {
+            resolved = resolvedAuthMethods.get(key);
+        } else {
+            resolved = null;
+            Map<String, SecurityScheme> authMethods = getAuthMethods(securities, securitySchemes);
+            if (authMethods != null && !authMethods.isEmpty()) {
+                List<CodegenSecurity> filtered = filterAuthMethods(config.fromSecurity(authMethods), securities);
+                resolved = Optional.ofNullable(filtered == null ? null : Collections.unmodifiableList(new ArrayList<>(filtered)));
+            }
+            resolvedAuthMethods.put(key, resolved);
+        }
+        if (resolved == null) {
+            return false;
+        }
+
+        // generators may modify the auth methods of an operation, so each operation gets its own copies
+        codegenOperation.authMethods = resolved
+                .map(authMethods -> authMethods.stream()
+                        .map(authMethod -> authMethod == null ? null : copyAuthMethod(authMethod))
+                        .collect(Collectors.toList()))
+                .orElse(null);
+        codegenOperation.hasAuthMethods = true;
+        return true;
+    }
+
+    // the copy constructor copies the list of scopes and the map of vendor extensions, but not the collections they hold
+    @SuppressWarnings("unchecked")
+    private static CodegenSecurity copyAuthMethod(CodegenSecurity authMethod) {
+        CodegenSecurity copy = new CodegenSecurity(authMethod);
+        copy.vendorExtensions = (Map<String, Object>) copyCollections(authMethod.vendorExtensions);
+        copy.scopes = (List<Map<String, Object>>) copyCollections(authMethod.scopes);
+        return copy;
+    }
+
+    private static Object copyCollections(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> copy.put(k, copyCollections(v)));
+            return copy;
+        } else if (value instanceof List) {
+            return ((List<?>) value).stream()
+                    .map(DefaultGenerator::copyCollections)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } else if (value instanceof Set) {
+            return ((Set<?>) value).stream()
+                    .map(DefaultGenerator::copyCollections)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        return value;
+    }
+
     private Map<String, SecurityScheme> getAuthMethods(List<SecurityRequirement> securities, Map<String, SecurityScheme> securitySchemes) {
         if (securities == null || (securitySchemes == null || securitySchemes.isEmpty())) {
             return null;
@@ -1942,7 +2264,7 @@ public class DefaultGenerator implements Generator {
                 File written = this.templateProcessor.writeToFile(versionMetadata, (ImplementationVersion.read() + "\n").getBytes(StandardCharsets.UTF_8));
                 if (written != null) {
                     files.add(versionMetadataFile);
-                    if (config.isEnablePostProcessFile() && !dryRun) {
+                    if (config.isEnablePostProcessFile() && writesFiles()) {
                         config.postProcessFile(written, "openapi-generator-version");
                     }
                 }
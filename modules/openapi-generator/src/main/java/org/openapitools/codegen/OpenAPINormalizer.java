@@ -470,7 +470,7 @@ public class OpenAPINormalizer {
             } else if (mediaType.getSchema() == null) {
                 continue;
             } else {
-                Schema newSchema = normalizeSchema(mediaType.getSchema(), new HashSet<>());
+                Schema newSchema = normalizeSchema(mediaType.getSchema(), newVisitedSchemas());
                 mediaType.setSchema(newSchema);
             }
         }
@@ -518,7 +518,7 @@ public class OpenAPINormalizer {
             }
 
             if (parameter.getSchema() != null) {
-                Schema newSchema = normalizeSchema(parameter.getSchema(), new HashSet<>());
+                Schema newSchema = normalizeSchema(parameter.getSchema(), newVisitedSchemas());
                 parameter.setSchema(newSchema);
             }
         }
@@ -576,7 +576,7 @@ public class OpenAPINormalizer {
                 //    example: null
                 //    content: null
                 //    $ref: #/components/headers/Location
-                Schema updatedHeader = normalizeSchema(h.getSchema(), new HashSet<>());
+                Schema updatedHeader = normalizeSchema(h.getSchema(), newVisitedSchemas());
                 h.setSchema(updatedHeader);
             }
         }
@@ -638,7 +638,7 @@ public class OpenAPINormalizer {
                 fixSelfReferenceSchema(schemaName, schema);
 
                 // normalize the schemas
-                schemas.put(schemaName, normalizeSchema(schema, new HashSet<>()));
+                schemas.put(schemaName, normalizeSchema(schema, newVisitedSchemas()));
             }
         }
     }
@@ -868,8 +868,20 @@ public class OpenAPINormalizer {
         }
     }
 
+    /**
+     * Creates the collection tracking the schemas visited while normalizing a schema tree.
+     *
+     * Schemas are tracked by identity: Schema.equals/hashCode walk the whole subtree (slow for large specs), and
+     * schemas are mutated while being normalized, so equal but distinct schemas must not be skipped.
+     *
+     * @return an empty set of visited schemas
+     */
+    protected Set<Schema> newVisitedSchemas() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
     protected Schema normalizeArraySchema(Schema schema) {
-        Schema result = processNormalize31Spec(schema, new HashSet<>());
+        Schema result = processNormalize31Spec(schema, newVisitedSchemas());
         return processSetArraytoNullable(result);
     }
 
@@ -921,7 +933,7 @@ public class OpenAPINormalizer {
                     property.getExtensions().remove(X_INTERNAL);
                 }
             }
-            Schema newProperty = normalizeSchema(property, new HashSet<>());
+            Schema newProperty = normalizeSchema(property, newVisitedSchemas());
             propertiesEntry.setValue(newProperty);
         }
     }
@@ -1071,7 +1083,7 @@ public class OpenAPINormalizer {
             }
         } else {
             // normalize it as it's no longer an oneOf
-            schema = normalizeSchema(schema, visitedSchemas);
+            schema = normalizeSimplifiedSchema(schema, visitedSchemas);
         }
 
         return schema;
@@ -1104,7 +1116,7 @@ public class OpenAPINormalizer {
         schema = processSimplifyAnyOf(schema);
 
         // last rule to process as the schema may become String schema (not "anyOf") after the completion
-        return normalizeSchema(processSimplifyAnyOfStringAndEnumString(schema), visitedSchemas);
+        return normalizeSimplifiedSchema(processSimplifyAnyOfStringAndEnumString(schema), visitedSchemas);
     }
 
     protected Schema normalizeComplexComposedSchema(Schema schema, Set<Schema> visitedSchemas) {
@@ -1115,6 +1127,25 @@ public class OpenAPINormalizer {
 
         processRemoveAnyOfOneOfAndKeepPropertiesOnly(schema);
 
+        return normalizeSimplifiedSchema(schema, visitedSchemas);
+    }
+
+    /**
+     * Normalizes a schema again after the rules simplified it, e.g. removed its oneOf/anyOf in place, so that the
+     * rest of it (properties, items, allOf, etc) is normalized as well.
+     *
+     * The schema may already be marked as visited, in which case it's only normalized again if it no longer
+     * contains oneOf/anyOf (which would otherwise lead back to the rules that just processed it).
+     *
+     * @param schema         Schema
+     * @param visitedSchemas a set of visited schemas
+     * @return Schema
+     */
+    protected Schema normalizeSimplifiedSchema(Schema schema, Set<Schema> visitedSchemas) {
+        if (schema != null && !ModelUtils.hasOneOf(schema) && !ModelUtils.hasAnyOf(schema)) {
+            visitedSchemas.remove(schema);
+        }
+
         return normalizeSchema(schema, visitedSchemas);
     }
 
@@ -1773,7 +1804,7 @@ public class OpenAPINormalizer {
 
         // at this point the schema becomes a simple allOf (no properties) with an additional schema containing
         // the properties. Normalize it before returning.
-        return normalizeSchema(schema, new HashSet<>());
+        return normalizeSchema(schema, newVisitedSchemas());
     }
 
     /**
@@ -1,11 +1,14 @@
 package org.openapitools.codegen;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.function.IOConsumer;
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.api.TemplateProcessor;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.templating.CommonTemplateContentLocator;
+import org.openapitools.codegen.templating.GeneratorTemplateContentLocator;
 import org.openapitools.codegen.templating.TemplateManagerOptions;
 import org.openapitools.codegen.templating.TemplateNotFoundException;
 import org.slf4j.Logger;
@@ -20,7 +23,6 @@ import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Scanner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
@@ -94,6 +96,31 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
         return Paths.get(getFullTemplateFile(name));
     }
 
+    /**
+     * Identifies the templates this manager resolves when they are all built-in, so that the templates compiled for a
+     * generation can be reused by later generations with the same key.
+     *
+     * @return the key, or {@code null} if some templates may be user-defined
+     */
+    public String getEmbeddedTemplatesKey() {
+        StringBuilder sb = new StringBuilder();
+        for (TemplatePathLocator loader : this.templateLoaders) {
+            String key;
+            if (loader instanceof GeneratorTemplateContentLocator) {
+                key = ((GeneratorTemplateContentLocator) loader).getEmbeddedTemplatesKey();
+            } else if (loader instanceof CommonTemplateContentLocator) {
+                key = ((CommonTemplateContentLocator) loader).getEmbeddedTemplatesKey();
+            } else {
+                key = null;
+            }
+            if (key == null) {
+                return null;
+            }
+            sb.append(key).append('|');
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
     /**
      * Pre-compiled pattern for replacing the OS file separator with '/' in classpath resource paths.
      * Only non-null on operating systems where {@link File#separator} is not already '/'.
@@ -130,9 +157,7 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
             if (reader == null) {
                 throw new RuntimeException("no file found");
             }
-            try (Scanner s = new Scanner(reader).useDelimiter("\\A")) {
-                return s.hasNext() ? s.next() : "";
-            }
+            return IOUtils.toString(reader);
         } catch (Exception e) {
             LOGGER.error("{}", e.getMessage(), e);
         }
@@ -224,6 +249,18 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
      */
     @Override
     public File writeToFile(String filename, byte[] contents) throws IOException {
+        return writeToFile(filename, out -> out.write(contents));
+    }
+
+    /**
+     * Write the contents written by the given function to a file, without holding them in memory.
+     *
+     * @param filename The name of file to write
+     * @param contents Writes the contents to the given stream, without closing it.
+     * @return File representing the written file.
+     * @throws IOException If file cannot be written.
+     */
+    public File writeToFile(String filename, IOConsumer<OutputStream> contents) throws IOException {
         // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
         File outputFile = Paths.get(filename).toFile();
 
@@ -256,7 +293,7 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
         return outputFile;
     }
 
-    private File writeToFileRaw(String filename, byte[] contents) throws IOException {
+    private File writeToFileRaw(String filename, IOConsumer<OutputStream> contents) throws IOException {
         // Use Paths.get here to normalize path (for Windows file separator, space escaping on Linux/Mac, etc)
         File output = Paths.get(filename).toFile();
         if (this.options.isSkipOverwrite() && output.exists()) {
@@ -268,7 +305,9 @@ public class TemplateManager implements TemplatingExecutor, TemplateProcessor {
             File parent = Paths.get(output.getParent()).toFile();
             parent.mkdirs();
         }
-        Files.write(output.toPath(), contents);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output.toPath()))) {
+            contents.accept(out);
+        }
 
         return output;
     }
@@ -0,0 +1,138 @@
+package org.openapitools.codegen;
+
+import org.apache.commons.io.function.IOConsumer;
+import org.openapitools.codegen.api.TemplatePathLocator;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.templating.TemplateManagerOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders templates like {@link TemplateManager}, but compares the rendered files with the files already in the output
+ * directory instead of writing them, e.g. to check that committed samples are up-to-date. Nothing is written to disk.
+ */
+public class VerifyingTemplateManager extends TemplateManager {
+    /**
+     * How a generated file differs from the output directory.
+     */
+    public enum Difference {
+        /**
+         * The generated file differs from the existing one.
+         */
+        CHANGED,
+        /**
+         * The file is generated, but doesn't exist.
+         */
+        MISSING,
+        /**
+         * The file is listed in the files metadata of a previous generation, but isn't generated anymore.
+         */
+        NOT_GENERATED
+    }
+
+    private final TemplateManagerOptions options;
+    private final Set<Path> generated = ConcurrentHashMap.newKeySet();
+    private final Map<Path, Difference> differences = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new instance of a {@link VerifyingTemplateManager}
+     *
+     * @param options         The {@link TemplateManagerOptions} for reading and writing templates
+     * @param engineAdapter   The adaptor to underlying templating engine
+     * @param templateLoaders Loaders which define where we look for templates
+     */
+    public VerifyingTemplateManager(
+            TemplateManagerOptions options,
+            TemplatingEngineAdapter engineAdapter,
+            TemplatePathLocator[] templateLoaders) {
+        super(options, engineAdapter, templateLoaders);
+        this.options = options;
+    }
+
+    /**
+     * Compares the contents with the existing file, rather than writing them.
+     *
+     * @param filename The name of file to compare with
+     * @param contents The contents bytes.  Typically, this is a UTF-8 formatted string.
+     * @return File representing the file which would be written.
+     * @throws IOException If the existing file cannot be read.
+     */
+    @Override
+    public File writeToFile(String filename, byte[] contents) throws IOException {
+        Path path = Paths.get(filename).toAbsolutePath().normalize();
+        File file = path.toFile();
+        generated.add(path);
+        if (!file.exists()) {
+            differences.put(path, Difference.MISSING);
+        } else if (this.options.isSkipOverwrite() || sameContents(file, contents)) {
+            // a file written twice is compared with its last contents
+            differences.remove(path);
+        } else {
+            differences.put(path, Difference.CHANGED);
+        }
+        return file;
+    }
+
+    /**
+     * Compares the contents with the existing file, rather than writing them. The contents are buffered, to be compared
+     * like the other generated files.
+     *
+     * @param filename The name of file to compare with
+     * @param contents Writes the contents to the given stream, without closing it.
+     * @return File representing the file which would be written.
+     * @throws IOException If the contents cannot be written, or the existing file cannot be read.
+     */
+    @Override
+    public File writeToFile(String filename, IOConsumer<OutputStream> contents) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        contents.accept(buffer);
+        return writeToFile(filename, buffer.toByteArray());
+    }
+
+    private static boolean sameContents(File file, byte[] contents) throws IOException {
+        return file.length() == contents.length && Arrays.equals(Files.readAllBytes(file.toPath()), contents);
+    }
+
+    /**
+     * Looks for the files which a previous generation wrote to the output directory (as listed in its files metadata,
+     * e.g. {@code .openapi-generator/FILES}), and which are no longer generated. Call this method once the generation
+     * completed.
+     *
+     * @param outputDir     The output directory
+     * @param filesMetadata The files metadata of the previous generation, relative to the output directory
+     * @throws IOException If the files metadata cannot be read.
+     */
+    public void verifyFilesMetadata(Path outputDir, Path filesMetadata) throws IOException {
+        Path metadata = outputDir.resolve(filesMetadata);
+        if (!Files.isRegularFile(metadata)) {
+            return;
+        }
+        for (String relativePath : Files.readAllLines(metadata, StandardCharsets.UTF_8)) {
+            if (relativePath.trim().isEmpty()) {
+                continue;
+            }
+            Path path = outputDir.resolve(relativePath.trim()).toAbsolutePath().normalize();
+            if (!generated.contains(path) && Files.exists(path)) {
+                differences.put(path, Difference.NOT_GENERATED);
+            }
+        }
+    }
+
+    /**
+     * Gets the files which differ from the output directory.
+     *
+     * @return An immutable copy of the differences, sorted by path.
+     */
+    public Map<Path, Difference> getDifferences() {
+        return Collections.unmodifiableMap(new TreeMap<>(differences));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.hash.Hashing;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link SpecLoader} which shares parsed specifications between the generations using it, e.g. the executions of a
+ * Maven build or the commands served by a long-lived process.
+ * <p>
+ * Entries are keyed by the location of the specification and the parse options, and hold the parse of a version of
+ * the specification, identified by the hashes of its content and of the local files it references (for local files).
+ * A new version replaces the previous one, so the cache holds one parsed specification per location. The parsed
+ * specification is kept in its serialized form only. The generation which parses it receives the parsed instance, and
+ * later ones a freshly deserialized copy, so generations can mutate their instance without affecting each other. The
+ * cache is safe to use from parallel generations: concurrent requests for the same version wait for a single parse.
+ */
+public class CachingSpecLoader implements SpecLoader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingSpecLoader.class);
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public SwaggerParseResult load(String inputSpec, List<AuthorizationValue> authorizationValues, ParseOptions options) {
+        String source = sourceKey(inputSpec, authorizationValues, options);
+        String version = version(inputSpec);
+
+        Entry created = new Entry(version);
+        while (true) {
+            Entry existing = entries.get(source);
+            if (existing != null && existing.version.equals(version)) {
+                return reuse(existing, inputSpec, authorizationValues, options);
+            }
+            // a new version replaces the previous one
+            if (existing == null ? entries.putIfAbsent(source, created) == null : entries.replace(source, existing, created)) {
+                break;
+            }
+        }
+        try {
+            SwaggerParseResult result = SpecLoader.DEFAULT.load(inputSpec, authorizationValues, options);
+            // serialized before the caller can mutate it
+            created.spec.complete(CachedSpec.of(result));
+            return result;
+        } catch (RuntimeException e) {
+            // don't cache failures, the next generation may succeed (e.g. a remote spec being temporarily unavailable)
+            entries.remove(source, created);
+            created.spec.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static SwaggerParseResult reuse(Entry entry, String inputSpec, List<AuthorizationValue> authorizationValues, ParseOptions options) {
+        LOGGER.info("Reusing specification {} parsed earlier", inputSpec);
+        try {
+            return entry.spec.get().copy(options);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the specification " + inputSpec, e);
+        } catch (ExecutionException e) {
+            // the parse failed in another generation, try again on our own
+            return SpecLoader.DEFAULT.load(inputSpec, authorizationValues, options);
+        }
+    }
+
+    private static String sourceKey(String inputSpec, List<AuthorizationValue> authorizationValues, ParseOptions options) {
+        StringBuilder sb = new StringBuilder();
+        File file = new File(inputSpec);
+        sb.append(file.isFile() ? file.getAbsolutePath() : inputSpec);
+        sb.append('|').append(options.isResolve())
+                .append('|').append(options.isResolveFully())
+                .append('|').append(options.isResolveCombinators())
+                .append('|').append(options.isResolveResponses())
+                .append('|').append(options.isFlatten());
+        if (authorizationValues != null && !authorizationValues.isEmpty()) {
+            sb.append('|').append(authorizationValues.stream()
+                    .map(a -> String.format(Locale.ROOT, "%s:%s:%s", a.getType(), a.getKeyName(), a.getValue()))
+                    .collect(Collectors.joining(",")));
+        }
+        return Hashing.sha256().hashUnencodedChars(sb).toString();
+    }
+
+    private static String version(String inputSpec) {
+        File file = new File(inputSpec);
+        if (!file.isFile()) {
+            // remote specifications can't be checked
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        try {
+            Map<Path, byte[]> files = SpecFiles.read(file.getAbsolutePath());
+            if (files == null) {
+                // remote references can't be checked, only the input spec is
+                files = Collections.singletonMap(file.toPath(), Files.readAllBytes(file.toPath()));
+            }
+            for (Map.Entry<Path, byte[]> specFile : files.entrySet()) {
+                sb.append('|').append(specFile.getKey()).append(':')
+                        .append(specFile.getValue() == null ? "<missing>" : Hashing.sha256().hashBytes(specFile.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the input spec " + inputSpec, e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The parse of a version of a specification, completed once parsed.
+     */
+    private static final class Entry {
+        private final String version;
+        private final CompletableFuture<CachedSpec> spec = new CompletableFuture<>();
+
+        Entry(String version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * A parsed specification held in serialized form.
+     */
+    private static final class CachedSpec {
+        private final String content;
+        private final List<String> messages;
+        private final SwaggerParseResult failed;
+
+        private CachedSpec(String content, List<String> messages, SwaggerParseResult failed) {
+            this.content = content;
+            this.messages = messages;
+            this.failed = failed;
+        }
+
+        static CachedSpec of(SwaggerParseResult result) {
+            OpenAPI openAPI = result.getOpenAPI();
+            if (openAPI == null) {
+                // nothing worth sharing, hand out the (immutable in practice) error result
+                return new CachedSpec(null, null, result);
+            }
+            try {
+                String content = (SpecVersion.V31 == openAPI.getSpecVersion() ? Json31.mapper() : Json.mapper())
+                        .writeValueAsString(openAPI);
+                List<String> messages = result.getMessages() == null ? null : new ArrayList<>(result.getMessages());
+                return new CachedSpec(content, messages, null);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize the parsed specification", e);
+            }
+        }
+
+        SwaggerParseResult copy(ParseOptions options) {
+            if (failed != null) {
+                return failed;
+            }
+            // all external references have been resolved already, so re-reading the content is cheap
+            SwaggerParseResult result = new OpenAPIParser().readContents(content, null, options);
+            result.setMessages(messages == null ? null : new ArrayList<>(messages));
+            return result;
+        }
+    }
+}
@@ -20,7 +20,6 @@ package org.openapitools.codegen.config;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
-import io.swagger.parser.OpenAPIParser;
 import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -82,6 +81,8 @@ public class CodegenConfigurator {
     private Map<String, String> reservedWordsMappings = new HashMap<>();
     private Map<String, String> serverVariables = new HashMap<>();
     private String auth;
+    private SpecLoader specLoader = SpecLoader.DEFAULT;
+    private SpecSnapshotCache specSnapshotCache;
 
     private List<TemplateDefinition> userDefinedTemplates = new ArrayList<>();
 
@@ -600,6 +601,11 @@ public class CodegenConfigurator {
         return this;
     }
 
+    public CodegenConfigurator setSpecLoader(SpecLoader specLoader) {
+        this.specLoader = specLoader == null ? SpecLoader.DEFAULT : specLoader;
+        return this;
+    }
+
     public CodegenConfigurator setStrictSpecBehavior(boolean strictSpecBehavior) {
         workflowSettingsBuilder.withStrictSpecBehavior(strictSpecBehavior);
         return this;
@@ -679,16 +685,29 @@ public class CodegenConfigurator {
         // if caller resets GlobalSettings, we'll need to reset generateAliasAsModel. As noted in this method, this should be moved.
         ModelUtils.setGenerateAliasAsModel(workflowSettings.isGenerateAliasAsModel());
 
-        // TODO: Support custom spec loader implementations (https://github.com/OpenAPITools/openapi-generator/issues/844)
         final List<AuthorizationValue> authorizationValues = AuthParser.parse(this.auth);
         ParseOptions options = new ParseOptions();
         options.setResolve(true);
         options.setResolveResponses(true);
-        SwaggerParseResult result = new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+
+        specSnapshotCache = SpecSnapshotCache.forSpec(inputSpec, authorizationValues, options, generatorSettings,
+                workflowSettings, specLoader);
+        if (specSnapshotCache != null) {
+            OpenAPI snapshot = specSnapshotCache.load();
+            if (snapshot != null) {
+                // snapshots are only stored for specs without validation messages
+                return new Context<>(snapshot, generatorSettings, workflowSettings);
+            }
+        }
+
+        SwaggerParseResult result = specLoader.load(inputSpec, authorizationValues, options);
 
         // TODO: Move custom validations to a separate type as part of a "Workflow"
         Set<String> validationMessages = new HashSet<>(null != result.getMessages() ? result.getMessages() : new ArrayList<>());
         OpenAPI specification = result.getOpenAPI();
+        if (!validationMessages.isEmpty()) {
+            specSnapshotCache = null;
+        }
         // TODO: The line below could be removed when at least one of the issue below has been resolved.
         // https://github.com/swagger-api/swagger-parser/issues/1369
         // https://github.com/swagger-api/swagger-parser/pull/1374
@@ -807,7 +826,8 @@ public class CodegenConfigurator {
         ClientOptInput input = new ClientOptInput()
                 .config(config)
                 .generatorSettings(generatorSettings)
-                .userDefinedTemplates(userDefinedTemplates);
+                .userDefinedTemplates(userDefinedTemplates)
+                .specSnapshotCache(specSnapshotCache);
 
         return input.openAPI((OpenAPI) context.getSpecDocument());
     }
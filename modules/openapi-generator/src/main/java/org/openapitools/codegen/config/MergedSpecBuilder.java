@@ -1,9 +1,12 @@
 package org.openapitools.codegen.config;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.ImmutableMap;
 import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.parser.core.models.ParseOptions;
@@ -14,6 +17,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -58,31 +62,26 @@ public class MergedSpecBuilder {
 
         String openapiVersion = null;
         boolean isJson = false;
-        ParseOptions options = new ParseOptions();
-        options.setResolve(true);
         List<SpecWithPaths> allPaths = new ArrayList<>();
         List<Server> allServers = new ArrayList<>();
 
-        for (String specRelatedPath : specRelatedPaths) {
-            String specPath = inputSpecRootDirectory + File.separator + specRelatedPath;
-            try {
-                LOGGER.info("Reading spec: {}", specPath);
+        // fragments are read in parallel, but merged in the order they are listed in, so the output is deterministic
+        List<SpecFragment> fragments = specRelatedPaths.parallelStream()
+                .map(this::readFragment)
+                .collect(Collectors.toList());
 
-                OpenAPI result = new OpenAPIParser()
-                        .readLocation(specPath, AuthParser.parse(auth), options)
-                        .getOpenAPI();
-
-                if (openapiVersion == null) {
-                    openapiVersion = result.getOpenapi();
-                    if (specRelatedPath.toLowerCase(Locale.ROOT).endsWith(".json")) {
-                        isJson = true;
-                    }
+        for (SpecFragment fragment : fragments) {
+            if (fragment == null) {
+                continue;
+            }
+            if (openapiVersion == null) {
+                openapiVersion = fragment.openapiVersion;
+                if (fragment.specRelatedPath.toLowerCase(Locale.ROOT).endsWith(".json")) {
+                    isJson = true;
                 }
-                allServers.addAll(ObjectUtils.defaultIfNull(result.getServers(), Collections.emptyList()));
-                allPaths.add(new SpecWithPaths(specRelatedPath, result.getPaths().keySet()));
-            } catch (Exception e) {
-                LOGGER.error("Failed to read file: {}. It would be ignored", specPath);
             }
+            allServers.addAll(fragment.servers);
+            allPaths.add(new SpecWithPaths(fragment.specRelatedPath, fragment.paths));
         }
 
         Map<String, Object> mergedSpec = generatedMergedSpec(openapiVersion, allPaths, allServers);
@@ -99,6 +98,61 @@ public class MergedSpecBuilder {
         return mergedFilePath.toString();
     }
 
+    /**
+     * Reads the OpenAPI version, the servers and the paths of a spec fragment.
+     * <p>
+     * The merged spec only references the paths of the fragments, which are parsed and resolved once, when the merged
+     * spec is parsed. So fragments are only read as plain JSON/YAML documents here, falling back to the OpenAPI parser
+     * for documents which aren't OpenAPI 3 documents (e.g. Swagger 2.0 fragments, converted by the parser).
+     *
+     * @return the fragment, or null if the file isn't a spec
+     */
+    private SpecFragment readFragment(String specRelatedPath) {
+        String specPath = inputSpecRootDirectory + File.separator + specRelatedPath;
+        LOGGER.info("Reading spec: {}", specPath);
+        try {
+            JsonNode document = readTree(Paths.get(specPath));
+            if (document != null && document.path("openapi").isTextual() && document.path("paths").isObject()) {
+                List<Server> servers = new ArrayList<>();
+                for (JsonNode server : document.path("servers")) {
+                    if (server.path("url").isTextual()) {
+                        servers.add(new Server().url(server.get("url").asText()));
+                    }
+                }
+                if (servers.isEmpty()) {
+                    // the default server, which the parser sets for a spec without servers
+                    servers.add(new Server().url("/"));
+                }
+                Set<String> paths = new LinkedHashSet<>();
+                document.path("paths").fieldNames().forEachRemaining(paths::add);
+                return new SpecFragment(specRelatedPath, document.get("openapi").asText(), servers, paths);
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Unable to read {} as a JSON/YAML document", specPath, e);
+        }
+
+        try {
+            ParseOptions options = new ParseOptions();
+            options.setResolve(true);
+            OpenAPI result = new OpenAPIParser()
+                    .readLocation(specPath, AuthParser.parse(auth), options)
+                    .getOpenAPI();
+            return new SpecFragment(specRelatedPath, result.getOpenapi(),
+                    ObjectUtils.defaultIfNull(result.getServers(), Collections.emptyList()), result.getPaths().keySet());
+        } catch (Exception e) {
+            LOGGER.error("Failed to read file: {}. It would be ignored", specPath);
+            return null;
+        }
+    }
+
+    private static JsonNode readTree(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        String text = new String(content, StandardCharsets.UTF_8).trim();
+        // JSON documents may be indented with tabs, which YAML doesn't allow
+        ObjectMapper mapper = text.startsWith("{") ? Json.mapper() : Yaml.mapper();
+        return mapper.readTree(content);
+    }
+
     private Map<String, Object> generatedMergedSpec(String openapiVersion, List<SpecWithPaths> allPaths, List<Server> allServers) {
         Map<String, Object> spec = generateHeader(openapiVersion, mergedFileInfoName, mergedFileInfoDescription, mergedFileInfoVersion, allServers);
         Map<String, Object> paths = new HashMap<>();
@@ -161,6 +215,20 @@ public class MergedSpecBuilder {
         }
     }
 
+    private static class SpecFragment {
+        private final String specRelatedPath;
+        private final String openapiVersion;
+        private final List<Server> servers;
+        private final Set<String> paths;
+
+        private SpecFragment(final String specRelatedPath, final String openapiVersion, final List<Server> servers, final Set<String> paths) {
+            this.specRelatedPath = specRelatedPath;
+            this.openapiVersion = openapiVersion;
+            this.servers = servers;
+            this.paths = paths;
+        }
+    }
+
     private static class SpecWithPaths {
         private final String specRelatedPath;
         private final Set<String> paths;
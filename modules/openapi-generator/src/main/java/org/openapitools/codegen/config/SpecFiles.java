@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the local files a specification is made of, e.g. to detect whether a cached specification is up-to-date.
+ */
+public final class SpecFiles {
+
+    // $ref values in yaml or json documents, e.g. $ref: './models.yaml#/Pet' or "$ref": "models.json"
+    private static final Pattern REF = Pattern.compile("\\$ref[\"']?\\s*:\\s*[\"']?([^\"'\\s,}#]*)");
+
+    private SpecFiles() {
+    }
+
+    /**
+     * Reads the input spec and all local files it references, transitively.
+     *
+     * @param inputSpec the location of the input spec
+     * @return the content of the files by absolute path, in the order they were found (null for missing files),
+     * or null if the spec or one of the references isn't a local file
+     * @throws IOException if a file can't be read
+     */
+    public static Map<Path, byte[]> read(String inputSpec) throws IOException {
+        Path spec;
+        if (inputSpec.startsWith("file:")) {
+            spec = Paths.get(URI.create(inputSpec));
+        } else if (inputSpec.contains("://")) {
+            return null;
+        } else {
+            spec = Paths.get(inputSpec);
+        }
+
+        Map<Path, byte[]> files = new LinkedHashMap<>();
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.add(spec.toAbsolutePath().normalize());
+        while (!pending.isEmpty()) {
+            Path path = pending.poll();
+            if (files.containsKey(path)) {
+                continue;
+            }
+            if (!Files.isRegularFile(path)) {
+                files.put(path, null);
+                continue;
+            }
+            byte[] content = Files.readAllBytes(path);
+            files.put(path, content);
+
+            Matcher ref = REF.matcher(new String(content, StandardCharsets.UTF_8));
+            while (ref.find()) {
+                String location = ref.group(1);
+                if (location.isEmpty()) {
+                    continue; // local reference, e.g. #/components/schemas/Pet
+                }
+                if (location.contains("://")) {
+                    return null;
+                }
+                pending.add(path.resolveSibling(URLDecoder.decode(location, "UTF-8")).normalize());
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+
+import java.util.List;
+
+/**
+ * Loads the input specification on behalf of {@link CodegenConfigurator}.
+ * <p>
+ * Build tool integrations may provide their own implementation, e.g. to share parsed specifications between
+ * several executions. Implementations must return a result which the caller is free to mutate.
+ */
+@FunctionalInterface
+public interface SpecLoader {
+
+    /**
+     * The default loader, which parses the specification from scratch on every call.
+     */
+    SpecLoader DEFAULT = (inputSpec, authorizationValues, options) ->
+            new OpenAPIParser().readLocation(inputSpec, authorizationValues, options);
+
+    /**
+     * Parses the specification located at {@code inputSpec}.
+     *
+     * @param inputSpec           the location (file path or URL) of the specification
+     * @param authorizationValues authorization values used when fetching remote references
+     * @param options             the parse options
+     * @return the parse result
+     */
+    SwaggerParseResult load(String inputSpec, List<AuthorizationValue> authorizationValues, ParseOptions options);
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Json31;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.SpecVersion;
+import io.swagger.v3.parser.core.models.AuthorizationValue;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.openapitools.codegen.CodegenConfig;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.utils.ImplementationVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of the input specification as it is after parsing, normalization and inline model resolution.
+ * <p>
+ * Enabled by setting the global property {@code specSnapshotCache} to a directory. A snapshot is keyed by the content
+ * of the input spec and of all local files it references, the generator version, the parse options and the generator
+ * settings affecting the normalization and the inline model resolution. When a matching snapshot exists, the spec is
+ * loaded from it, and parsing, resolving, normalizing and flattening are skipped (OpenAPI 3.1 specifications are
+ * stored as parsed, see {@link #isProcessable(OpenAPI)}).
+ * <p>
+ * Specifications with remote references (or located at a remote URL) are never cached, as their content can't be
+ * checked without fetching it. Snapshots are only stored for specifications without validation messages.
+ */
+public class SpecSnapshotCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecSnapshotCache.class);
+
+    private static final String FILE_EXTENSION = ".json.gz";
+    private static final String PROCESSING_KEY = "processingKey";
+    private static final String OPENAPI = "openapi";
+
+    private final Path file;
+    private final String inputSpec;
+    private final List<AuthorizationValue> authorizationValues;
+    private final ParseOptions options;
+    private final SpecLoader specLoader;
+    private boolean loaded;
+    private String processingKey;
+
+    private SpecSnapshotCache(Path file, String inputSpec, List<AuthorizationValue> authorizationValues,
+                              ParseOptions options, SpecLoader specLoader) {
+        this.file = file;
+        this.inputSpec = inputSpec;
+        this.authorizationValues = authorizationValues;
+        this.options = options;
+        this.specLoader = specLoader;
+    }
+
+    /**
+     * Creates the snapshot cache entry of a specification, if the cache is enabled by the global property
+     * {@code specSnapshotCache} and the specification can be cached.
+     *
+     * @param inputSpec           the location of the input spec
+     * @param authorizationValues authorization values used to fetch the spec
+     * @param options             the parse options
+     * @param generatorSettings   the generator settings
+     * @param workflowSettings    the workflow settings
+     * @param specLoader          the loader used to parse the specification, see {@link #parse()}
+     * @return the cache entry, or null if the spec can't be cached
+     */
+    public static SpecSnapshotCache forSpec(String inputSpec, List<AuthorizationValue> authorizationValues,
+                                            ParseOptions options, GeneratorSettings generatorSettings,
+                                            WorkflowSettings workflowSettings, SpecLoader specLoader) {
+        String directory = GlobalSettings.getProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE);
+        if (directory == null || directory.isEmpty() || inputSpec == null) {
+            return null;
+        }
+
+        try {
+            MessageDigest digest = newDigest();
+            if (!digestSpecFiles(digest, inputSpec)) {
+                LOGGER.info("The spec {} (or one of its references) is not a local file, spec snapshot cache disabled", inputSpec);
+                return null;
+            }
+            update(digest, ImplementationVersion.read());
+            update(digest, options.isResolve() + "," + options.isResolveResponses() + "," + options.isResolveFully());
+            update(digest, generatorSettings.getGeneratorName());
+            update(digest, new TreeMap<>(generatorSettings.getOpenapiNormalizer()).toString());
+            update(digest, new TreeMap<>(generatorSettings.getInlineSchemaNameMappings()).toString());
+            update(digest, new TreeMap<>(generatorSettings.getInlineSchemaOptions()).toString());
+            // the values set in ModelUtils may still be the ones of a previous generation at this point
+            Map<String, Object> additionalProperties = generatorSettings.getAdditionalProperties();
+            update(digest, workflowSettings.isGenerateAliasAsModel() + ","
+                    + additionalProperties.get(CodegenConstants.GENERATE_ALIAS_AS_MODEL) + ","
+                    + additionalProperties.get(CodegenConstants.DISALLOW_ADDITIONAL_PROPERTIES_IF_NOT_PRESENT));
+            Path file = Paths.get(directory).resolve(toHex(digest.digest()) + FILE_EXTENSION);
+            return new SpecSnapshotCache(file, inputSpec, authorizationValues, options, specLoader);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to compute the spec snapshot key of {}, spec snapshot cache disabled", inputSpec, e);
+            return null;
+        }
+    }
+
+    /**
+     * Computes the key of the settings which affect the normalization and the inline model resolution, as they are
+     * once the generator has processed its options.
+     *
+     * @param config the generator
+     * @return the processing key
+     */
+    public static String processingKey(CodegenConfig config) {
+        return config.getUseOpenapiNormalizer() + ";" + new TreeMap<>(config.openapiNormalizer()) + ";"
+                + config.getUseInlineModelResolver() + ";" + new TreeMap<>(config.inlineSchemaNameMapping()) + ";"
+                + new TreeMap<>(config.inlineSchemaOption());
+    }
+
+    /**
+     * Whether a specification can be stored once normalized and flattened.
+     * <p>
+     * A normalized OpenAPI 3.1 specification mixes 3.0 and 3.1 schemas (e.g. {@code type} and {@code types}), which
+     * neither serializer preserves. Such specifications are stored as parsed, which still saves parsing and resolving.
+     *
+     * @param openAPI the parsed specification
+     * @return true if the processed specification can be stored
+     */
+    public static boolean isProcessable(OpenAPI openAPI) {
+        return !SpecVersion.V31.equals(openAPI.getSpecVersion());
+    }
+
+    /**
+     * Loads the snapshot, if it exists.
+     *
+     * @return the specification stored in the snapshot, or null if there is no (readable) snapshot
+     */
+    public OpenAPI load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            JsonNode node = Json.mapper().readTree(in);
+            ParseOptions parseOptions = new ParseOptions();
+            parseOptions.setResolve(false);
+            SwaggerParseResult result = new OpenAPIParser().readContents(node.get(OPENAPI).toString(), null, parseOptions);
+            if (result.getOpenAPI() == null) {
+                LOGGER.warn("Ignoring invalid spec snapshot {}", file);
+                return null;
+            }
+            loaded = true;
+            processingKey = node.hasNonNull(PROCESSING_KEY) ? node.get(PROCESSING_KEY).asText() : null;
+            LOGGER.info("Loaded {} from the spec snapshot {}", inputSpec, file);
+            return result.getOpenAPI();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable spec snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return true if a snapshot has been loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @param processingKey the processing key of the current generation, see {@link #processingKey(CodegenConfig)}
+     * @return true if the loaded snapshot is already normalized and flattened with the same settings
+     */
+    public boolean isProcessed(String processingKey) {
+        return loaded && this.processingKey != null && this.processingKey.equals(processingKey);
+    }
+
+    /**
+     * @param processingKey the processing key of the current generation, see {@link #processingKey(CodegenConfig)}
+     * @return true if the loaded snapshot is normalized and flattened with other settings, and can't be used
+     */
+    public boolean isProcessedWithOtherSettings(String processingKey) {
+        return loaded && this.processingKey != null && !this.processingKey.equals(processingKey);
+    }
+
+    /**
+     * Parses the specification with the {@link SpecLoader} of the generation, e.g. when the loaded snapshot has been
+     * processed with other settings.
+     *
+     * @return the parsed specification
+     */
+    public OpenAPI parse() {
+        loaded = false;
+        processingKey = null;
+        return specLoader.load(inputSpec, authorizationValues, options).getOpenAPI();
+    }
+
+    /**
+     * Stores the specification. Errors are logged, as the cache is only an optimization.
+     *
+     * @param processingKey the processing key of the current generation (see {@link #processingKey(CodegenConfig)}),
+     *                      or null if the specification is stored as parsed
+     * @param openAPI       the specification, normalized and flattened unless {@code processingKey} is null
+     */
+    public void store(String processingKey, OpenAPI openAPI) {
+        try {
+            ObjectMapper mapper = SpecVersion.V31.equals(openAPI.getSpecVersion()) ? Json31.mapper() : Json.mapper();
+            ObjectNode node = mapper.createObjectNode();
+            node.put(PROCESSING_KEY, processingKey);
+            node.set(OPENAPI, mapper.valueToTree(openAPI));
+
+            Files.createDirectories(file.getParent());
+            // write to a temporary file first, so concurrent generations never read a partial snapshot
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                    mapper.writeValue(out, node);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            LOGGER.info("Stored the spec snapshot of {} in {}", inputSpec, file);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to store the spec snapshot of {} in {}", inputSpec, file, e);
+        }
+    }
+
+    /**
+     * Digests the input spec and all local files it references, transitively.
+     *
+     * @return false if the spec or one of the references isn't a local file
+     */
+    private static boolean digestSpecFiles(MessageDigest digest, String inputSpec) throws IOException {
+        Map<Path, byte[]> files = SpecFiles.read(inputSpec);
+        if (files == null) {
+            return false;
+        }
+        for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+            update(digest, file.getKey().toString());
+            if (file.getValue() == null) {
+                update(digest, "<missing>");
+            } else {
+                digest.update(file.getValue());
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return sb.toString();
+    }
+}
@@ -110,6 +110,10 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen {
     protected static final String zeroBasedEnumVendorExtension = VendorExtension.X_ZERO_BASED_ENUM.getName();
 
     private final Logger LOGGER = LoggerFactory.getLogger(AbstractCSharpCodegen.class);
+    // gmiyuvsd - ecma modifiers
+    // l - legacy modifier provided by this library, provides a way to opt out of culture invariant
+    // nx - c# modifiers https://learn.microsoft.com/en-us/dotnet/standard/base-types/regular-expression-options
+    private static final Pattern PATTERN_MODIFIERS = Pattern.compile(".*/[gmiyuvsdlnx]+$");
 
     // special property keywords not allowed as these are the function names in the model files
     protected Set<String> propertySpecialKeywords = new HashSet<>(Arrays.asList("ToString", "ToJson", "GetHashCode", "Equals", "ShouldSerializeToString"));
@@ -662,29 +666,15 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen {
             // https://github.com/OpenAPITools/openapi-generator/issues/12324
             // TODO: why do these collections contain different instances?
             // fixing allVars should suffice instead of patching every collection
-            for (CodegenProperty property : model.allVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.vars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.readWriteVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.optionalVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.parentVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.requiredVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.readOnlyVars) {
-                patchProperty(enumRefs, model, property);
-            }
-            for (CodegenProperty property : model.nonNullableVars) {
-                patchProperty(enumRefs, model, property);
+            // with shareModelProperties, a property shared by several collections is patched once
+            Set<CodegenProperty> patched = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<CodegenProperty> properties : Arrays.asList(model.allVars, model.vars, model.readWriteVars,
+                    model.optionalVars, model.parentVars, model.requiredVars, model.readOnlyVars, model.nonNullableVars)) {
+                for (CodegenProperty property : properties) {
+                    if (!isShareModelProperties() || patched.add(property)) {
+                        patchProperty(enumRefs, model, property);
+                    }
+                }
             }
 
             List<CodegenProperty> overriddenProperties = model.vars.stream().filter(v -> model.allVars.stream().anyMatch(a -> a.baseName.equals(v.baseName) && a.dataType != v.dataType)).collect(Collectors.toList());
@@ -2036,12 +2026,7 @@ public abstract class AbstractCSharpCodegen extends DefaultCodegen {
     public void postProcessPattern(String pattern, Map<String, Object> vendorExtensions) {
         if (pattern != null) {
             // check if the pattern has any modifiers
-            // gmiyuvsd - ecma modifiers
-            // l - legacy modifier provided by this library, provides a way to opt out of culture invariant
-            // nx - c# modifiers https://learn.microsoft.com/en-us/dotnet/standard/base-types/regular-expression-options
-            Pattern hasModifiers = Pattern.compile(".*/[gmiyuvsdlnx]+$");
-
-            int end = hasModifiers.matcher(pattern).find()
+            int end = PATTERN_MODIFIERS.matcher(pattern).find()
                     ? pattern.lastIndexOf('/')
                     : pattern.length() - 1;
 
@@ -68,6 +68,7 @@ public abstract class AbstractKotlinCodegen extends DefaultCodegen implements Co
     public static final String X_KOTLIN_IMPLEMENTS_FIELDS_SKIP = "xKotlinImplementsFieldsSkip";
 
     private final Logger LOGGER = LoggerFactory.getLogger(AbstractKotlinCodegen.class);
+    private static final Pattern NON_WORD_PATTERN = Pattern.compile("\\W+", Pattern.UNICODE_CHARACTER_CLASS);
 
     @Setter protected String artifactId;
     @Setter protected String artifactVersion = "1.0.0";
@@ -117,6 +118,8 @@ public abstract class AbstractKotlinCodegen extends DefaultCodegen implements Co
 
         supportsInheritance = true;
         setSortModelPropertiesByRequiredFlag(true);
+        // isInherited is set on requiredVars and optionalVars but not on the other lists, see fromModel
+        shareModelProperties = false;
 
         languageSpecificPrimitives = new HashSet<>(Arrays.asList(
                 "kotlin.Byte",
@@ -805,7 +808,7 @@ public abstract class AbstractKotlinCodegen extends DefaultCodegen implements Co
         }
 
         // Fallback, replace unknowns with underscore.
-        word = Pattern.compile("\\W+", Pattern.UNICODE_CHARACTER_CLASS).matcher(word).replaceAll("_");
+        word = NON_WORD_PATTERN.matcher(word).replaceAll("_");
         if (word.matches("\\d.*")) {
             word = "_" + word;
         }
@@ -48,6 +48,8 @@ import static org.openapitools.codegen.utils.StringUtils.*;
 
 public abstract class AbstractPythonCodegen extends DefaultCodegen implements CodegenConfig {
     private final Logger LOGGER = LoggerFactory.getLogger(AbstractPythonCodegen.class);
+    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\r\n|\r|\n");
+    private static final Pattern REGEX_VALUE_PATTERN = Pattern.compile("^/\\^?(.+?)\\$?/.?$");
 
     public static final String MAP_NUMBER_TO = "mapNumberTo";
 
@@ -220,7 +222,7 @@ public abstract class AbstractPythonCodegen extends DefaultCodegen implements Co
                 if (defaultValue != null) {
                     defaultValue = defaultValue.replace("\\", "\\\\")
                             .replace("'", "\\'");
-                    if (Pattern.compile("\r\n|\r|\n").matcher(defaultValue).find()) {
+                    if (NEWLINE_PATTERN.matcher(defaultValue).find()) {
                         return "'''" + defaultValue + "'''";
                     } else {
                         return "'" + defaultValue + "'";
@@ -438,8 +440,7 @@ public abstract class AbstractPythonCodegen extends DefaultCodegen implements Co
                 Random random = new Random(18);
                 String sample = rgxGen.generate(random);
                 // omit leading / and trailing /, omit trailing /i
-                Pattern valueExtractor = Pattern.compile("^/\\^?(.+?)\\$?/.?$");
-                Matcher m = valueExtractor.matcher(sample);
+                Matcher m = REGEX_VALUE_PATTERN.matcher(sample);
                 if (m.find()) {
                     example = m.group(m.groupCount());
                 } else {
@@ -45,6 +45,8 @@ import static org.openapitools.codegen.utils.StringUtils.*;
 
 public abstract class AbstractPythonPydanticV1Codegen extends DefaultCodegen implements CodegenConfig {
     private final Logger LOGGER = LoggerFactory.getLogger(AbstractPythonPydanticV1Codegen.class);
+    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\r\n|\r|\n");
+    private static final Pattern REGEX_VALUE_PATTERN = Pattern.compile("^/\\^?(.+?)\\$?/.?$");
 
     public static final String MAP_NUMBER_TO = "mapNumberTo";
 
@@ -190,7 +192,7 @@ public abstract class AbstractPythonPydanticV1Codegen extends DefaultCodegen imp
                 if (defaultValue != null) {
                     defaultValue = defaultValue.replace("\\", "\\\\")
                             .replace("'", "\'");
-                    if (Pattern.compile("\r\n|\r|\n").matcher(defaultValue).find()) {
+                    if (NEWLINE_PATTERN.matcher(defaultValue).find()) {
                         return "'''" + defaultValue + "'''";
                     } else {
                         return "'" + defaultValue + "'";
@@ -409,8 +411,7 @@ public abstract class AbstractPythonPydanticV1Codegen extends DefaultCodegen imp
                 Random random = new Random(18);
                 String sample = rgxGen.generate(random);
                 // omit leading / and trailing /, omit trailing /i
-                Pattern valueExtractor = Pattern.compile("^/\\^?(.+?)\\$?/.?$");
-                Matcher m = valueExtractor.matcher(sample);
+                Matcher m = REGEX_VALUE_PATTERN.matcher(sample);
                 if (m.find()) {
                     example = m.group(m.groupCount());
                 } else {
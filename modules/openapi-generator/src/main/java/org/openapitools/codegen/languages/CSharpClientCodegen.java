@@ -146,6 +146,8 @@ public class CSharpClientCodegen extends AbstractCSharpCodegen {
 
     public CSharpClientCodegen() {
         super();
+        // readWriteVars missing from allVars are added to allVars, see postProcessModels
+        shareModelProperties = false;
 
         modifyFeatureSet(features -> features
                 .includeDocumentationFeatures(DocumentationFeature.Readme)
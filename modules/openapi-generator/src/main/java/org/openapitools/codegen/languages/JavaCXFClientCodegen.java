@@ -60,6 +60,8 @@ public class JavaCXFClientCodegen extends AbstractJavaCodegen
         super();
 
         supportsInheritance = true;
+        // x-is-jackson-optional-nullable is set on readOnlyVars but not on the other lists, see postProcessModelProperty
+        shareModelProperties = false;
 
         sourceFolder = "src" + File.separator + "gen" + File.separator + "java";
         invokerPackage = "org.openapitools.api";
@@ -18,7 +18,6 @@
 package org.openapitools.codegen.languages;
 
 import io.swagger.v3.oas.models.OpenAPI;
-import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.*;
 import org.openapitools.codegen.meta.features.*;
 import org.openapitools.codegen.serializer.SerializerUtils;
@@ -26,7 +25,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
 
 public class OpenAPIGenerator extends DefaultCodegen implements CodegenConfig {
@@ -84,11 +82,9 @@ public class OpenAPIGenerator extends DefaultCodegen implements CodegenConfig {
 
     @Override
     public void processOpenAPI(OpenAPI openAPI) {
-        String jsonOpenAPI = SerializerUtils.toJsonString(openAPI);
-
         try {
             String outputFile = outputFolder + File.separator + outputFileName;
-            FileUtils.writeStringToFile(new File(outputFile), jsonOpenAPI, StandardCharsets.UTF_8);
+            writeGeneratedFile(outputFile, out -> SerializerUtils.writeJson(openAPI, out));
             LOGGER.info("wrote file to {}", outputFile);
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
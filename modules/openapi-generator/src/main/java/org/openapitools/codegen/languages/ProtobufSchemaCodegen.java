@@ -96,6 +96,7 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
     private static final String VENDOR_EXT_ENUM_WRAPPER_MESSAGE = "x-protobuf-enum-wrapper-message";
 
     private final Logger LOGGER = LoggerFactory.getLogger(ProtobufSchemaCodegen.class);
+    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\r\n|\r|\n");
 
     @Setter protected String packageName = "openapitools";
 
@@ -121,6 +122,12 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
 
     private boolean extractEnumsToSeparateFiles = false;
 
+    /**
+     * Keys (data type and name) of the vars of each parent model, maintained while properties are propagated
+     * by {@link #manageChildrenProperties(Map, Map)}.
+     */
+    private final Map<CodegenModel, Set<String>> parentVarKeys = new IdentityHashMap<>();
+
     @Override
     public CodegenType getTag() {
         return CodegenType.SCHEMA;
@@ -1016,10 +1023,21 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
      * 1. Bottom-up propagation: Each model copies properties to all its ancestors
      * 2. Discriminator aggregation: Discriminator parents recursively collect from ALL descendants
      * 
+     * The keys of each parent's vars are indexed once, and the models referenced by discriminator
+     * mappings are collected once, so the propagation scales linearly with the number of inherited properties.
+     * 
      * @param objs the complete models map for import tracking
      * @param allModels map of all CodegenModels by name
      */
     public void manageChildrenProperties(Map<String, ModelsMap> objs, Map<String, CodegenModel> allModels) {
+        try {
+            propagateChildrenProperties(objs, allModels);
+        } finally {
+            parentVarKeys.clear();
+        }
+    }
+
+    private void propagateChildrenProperties(Map<String, ModelsMap> objs, Map<String, CodegenModel> allModels) {
         // Phase 1: Bottom-up property propagation
         // Each child copies its properties to all ancestors in the chain
         for (CodegenModel model : allModels.values()) {
@@ -1053,25 +1071,19 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
         // Phase 3: Clean up parent imports for models NOT in discriminator mappings
         // In protobuf, we copy properties instead of using inheritance, so models shouldn't import their parents
         // UNLESS they're explicitly in a discriminator mapping (handled by addDiscriminatorParentImports)
+        Set<String> modelsInDiscriminatorMappings = new HashSet<>();
+        for (CodegenModel potentialParent : allModels.values()) {
+            if (isDiscriminatorParent(potentialParent)) {
+                for (MappedModel mappedModel : potentialParent.discriminator.getMappedModels()) {
+                    modelsInDiscriminatorMappings.add(mappedModel.getModelName());
+                }
+            }
+        }
         for (CodegenModel model : allModels.values()) {
             if (model.getParentModel() != null) {
-                // Check if this model is in any discriminator mapping
-                boolean isInDiscriminatorMapping = false;
-                for (CodegenModel potentialParent : allModels.values()) {
-                    if (isDiscriminatorParent(potentialParent)) {
-                        for (MappedModel mappedModel : potentialParent.discriminator.getMappedModels()) {
-                            if (mappedModel.getModelName().equals(model.getClassname())) {
-                                isInDiscriminatorMapping = true;
-                                break;
-                            }
-                        }
-                    }
-                    if (isInDiscriminatorMapping) break;
-                }
-                
                 // If NOT in discriminator mapping, remove parent imports
                 // (These were added by base OpenAPI processing but aren't needed in protobuf)
-                if (!isInDiscriminatorMapping) {
+                if (!modelsInDiscriminatorMappings.contains(model.getClassname())) {
                     CodegenModel parent = model.getParentModel();
                     while (parent != null) {
                         // Capture parent's classname for use in lambda
@@ -1353,13 +1365,16 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
             return;
         }
         
+        Set<String> parentKeys = parentVarKeys.computeIfAbsent(parent, p -> p.vars.stream()
+                .map(ProtobufSchemaCodegen::varKey)
+                .collect(Collectors.toCollection(HashSet::new)));
         for (CodegenProperty property : child.getVars()) {
             if (property == null) {
                 LOGGER.warn("Skipping null property in child model {}", child.getClassname());
                 continue;
             }
             
-            if (!parentVarsContainsVar(parent.vars, property)) {
+            if (parentKeys.add(varKey(property))) {
                 parent.vars.add(property);
                 
                 // Guard against null vendorExtensions
@@ -1545,7 +1560,7 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
             }
         } else if (ModelUtils.isStringSchema(p)) {
             if (p.getDefault() != null) {
-                if (Pattern.compile("\r\n|\r|\n").matcher(String.valueOf(p.getDefault())).find())
+                if (NEWLINE_PATTERN.matcher(String.valueOf(p.getDefault())).find())
                     return "'''" + p.getDefault() + "'''";
                 else
                     return "'" + p.getDefault() + "'";
@@ -1913,22 +1928,13 @@ public class ProtobufSchemaCodegen extends DefaultCodegen implements CodegenConf
     }
 
     /**
-     * Checks if the var provided is already in the list of the parent's vars, matching the type and the name
+     * Returns the key identifying a var in the parent's vars, matching the type and the name
      *
-     * @param parentVars list of parent's vars
-     * @param var        var to compare
-     * @return true if the var is already in the parent's list, false otherwise
+     * @param var var to identify
+     * @return the key of the var
      */
-    private boolean parentVarsContainsVar(List<CodegenProperty> parentVars, CodegenProperty var) {
-        boolean containsVar = false;
-        for (CodegenProperty parentVar : parentVars) {
-            if (var.getDataType().equals(parentVar.getDataType())
-                    && var.getName().equals(parentVar.getName())) {
-                containsVar = true;
-                break;
-            }
-        }
-        return containsVar;
+    private static String varKey(CodegenProperty var) {
+        return var.getDataType() + ' ' + var.getName();
     }
 
     @Override
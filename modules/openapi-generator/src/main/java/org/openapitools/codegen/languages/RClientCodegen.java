@@ -46,6 +46,7 @@ import static org.openapitools.codegen.utils.StringUtils.underscore;
 
 public class RClientCodegen extends DefaultCodegen implements CodegenConfig {
     private final Logger LOGGER = LoggerFactory.getLogger(RClientCodegen.class);
+    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\r\n|\r|\n");
 
     @Setter protected String packageName = "openapi";
     @Setter protected String packageVersion = "1.0.0";
@@ -859,7 +860,7 @@ public class RClientCodegen extends DefaultCodegen implements CodegenConfig {
             }
         } else if (ModelUtils.isStringSchema(p)) {
             if (p.getDefault() != null) {
-                if (Pattern.compile("\r\n|\r|\n").matcher((String.valueOf(p.getDefault()))).find())
+                if (NEWLINE_PATTERN.matcher((String.valueOf(p.getDefault()))).find())
                     return "'''" + p.getDefault().toString() + "'''";
                 else
                     return "\"" + ((String.valueOf(p.getDefault()))).replaceAll("\"", "\\\"") + "\"";
@@ -284,7 +284,7 @@ public class RustAxumServerCodegen extends AbstractRustCodegen implements Codege
 
     @Override
     public Mustache.Compiler processCompiler(Mustache.Compiler compiler) {
-        return compiler
+        return super.processCompiler(compiler)
                 .emptyStringIsFalse(true)
                 .zeroIsFalse(true);
     }
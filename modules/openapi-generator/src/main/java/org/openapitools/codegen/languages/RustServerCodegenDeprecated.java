@@ -55,6 +55,7 @@ import static org.openapitools.codegen.utils.StringUtils.underscore;
 public class RustServerCodegenDeprecated extends AbstractRustCodegen implements CodegenConfig {
 
     private final Logger LOGGER = LoggerFactory.getLogger(RustServerCodegenDeprecated.class);
+    private static final Pattern CALLBACK_PARAMETER_PATTERN = Pattern.compile("\\{\\$[^}{]*\\}");
 
     private Map<String, String> modelXmlNames = new HashMap<String, String>();
 
@@ -517,7 +518,7 @@ public class RustServerCodegenDeprecated extends AbstractRustCodegen implements
 
             List<String> params = new ArrayList<String>();
 
-            Matcher match = Pattern.compile("\\{\\$[^}{]*\\}").matcher(op.path);
+            Matcher match = CALLBACK_PARAMETER_PATTERN.matcher(op.path);
 
             while (match.find()) {
                 String param = match.group();
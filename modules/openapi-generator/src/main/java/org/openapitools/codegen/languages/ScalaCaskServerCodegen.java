@@ -18,7 +18,6 @@ package org.openapitools.codegen.languages;
 
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
-import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.*;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
@@ -29,7 +28,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -383,11 +381,9 @@ public class ScalaCaskServerCodegen extends AbstractScalaCodegen implements Code
 
     @Override
     public void processOpenAPI(OpenAPI openAPI) {
-        String jsonOpenAPI = SerializerUtils.toJsonString(openAPI);
-
         try {
             String outputFile = getOutputDir() + "/jvm/" + getResourceFolder() + "/openapi.json";
-            FileUtils.writeStringToFile(new File(outputFile), jsonOpenAPI, StandardCharsets.UTF_8);
+            writeGeneratedFile(outputFile, out -> SerializerUtils.writeJson(openAPI, out));
             LOGGER.info("wrote file to {}", outputFile);
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
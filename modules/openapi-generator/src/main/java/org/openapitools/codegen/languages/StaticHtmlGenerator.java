@@ -164,7 +164,7 @@ public class StaticHtmlGenerator extends DefaultCodegen implements CodegenConfig
      */
     @Override
     public Compiler processCompiler(Compiler compiler) {
-        return compiler.withEscaper(Escapers.NONE);
+        return super.processCompiler(compiler).withEscaper(Escapers.NONE);
     }
 
     private Markdown markdownConverter = new Markdown();
@@ -59,6 +59,7 @@ import static org.openapitools.codegen.utils.StringUtils.underscore;
 
 public class TypeScriptClientCodegen extends AbstractTypeScriptClientCodegen implements CodegenConfig {
     private final Logger LOGGER = LoggerFactory.getLogger(TypeScriptClientCodegen.class);
+    private static final Pattern NEWLINE_PATTERN = Pattern.compile("\r\n|\r|\n");
 
     private static final String FRAMEWORK_SWITCH = "framework";
     private static final String FRAMEWORK_SWITCH_DESC = "Specify the framework which should be used in the client code.";
@@ -614,8 +615,7 @@ public class TypeScriptClientCodegen extends AbstractTypeScriptClientCodegen imp
      * @return quoted string
      */
     private String ensureQuotes(String in) {
-        Pattern pattern = Pattern.compile("\r\n|\r|\n");
-        Matcher matcher = pattern.matcher(in);
+        Matcher matcher = NEWLINE_PATTERN.matcher(in);
         if (matcher.find()) {
             // if a string has a new line in it add backticks to make it a typescript multiline string
             return "`" + in + "`";
@@ -0,0 +1,111 @@
+package org.openapitools.codegen.model;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The data passed to the supporting file templates.
+ * <p>
+ * Besides regular entries, the bundle holds lazy entries whose value is only computed the first time it is looked up,
+ * e.g. when a template references it. This avoids costly work (server conversion, spec serialization, ...) for
+ * generators whose supporting files never use the value. A lazy entry whose supplier returns {@code null} is treated
+ * as absent, exactly like a key which was never put into the map.
+ * <p>
+ * Operations which need all entries ({@link #entrySet()}, {@link #size()}, ...) evaluate every pending lazy entry.
+ */
+public class SupportingFilesBundle extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> values;
+    private final Map<String, Supplier<?>> pending = new LinkedHashMap<>();
+
+    public SupportingFilesBundle() {
+        this.values = new HashMap<>();
+    }
+
+    public SupportingFilesBundle(Map<String, Object> values) {
+        this.values = new HashMap<>(values);
+    }
+
+    /**
+     * Adds an entry whose value is computed on first lookup.
+     *
+     * @param key      the key
+     * @param supplier computes the value, may return {@code null} to leave the key absent
+     */
+    public synchronized void putLazy(String key, Supplier<?> supplier) {
+        values.remove(key);
+        pending.put(key, supplier);
+    }
+
+    /**
+     * @param key the key
+     * @return true if the value of the key has not been computed yet
+     */
+    public synchronized boolean isPending(String key) {
+        return pending.containsKey(key);
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        resolve(key);
+        return values.get(key);
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        resolve(key);
+        return values.containsKey(key);
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        pending.remove(key);
+        return values.put(key, value);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        pending.remove(key);
+        return values.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        pending.clear();
+        values.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        resolveAll();
+        return values.size();
+    }
+
+    @Override
+    public synchronized Set<Entry<String, Object>> entrySet() {
+        resolveAll();
+        return values.entrySet();
+    }
+
+    private void resolve(Object key) {
+        // remove before computing, so a supplier reading other entries of the bundle can't recurse into itself
+        Supplier<?> supplier = pending.remove(key);
+        if (supplier != null) {
+            Object value = supplier.get();
+            if (value != null) {
+                values.put((String) key, value);
+            }
+        }
+    }
+
+    private void resolveAll() {
+        for (String key : new ArrayList<>(pending.keySet())) {
+            resolve(key);
+        }
+    }
+}
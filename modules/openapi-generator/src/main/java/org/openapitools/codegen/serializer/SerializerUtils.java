@@ -1,8 +1,10 @@
 package org.openapitools.codegen.serializer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
@@ -13,30 +15,33 @@ import org.openapitools.codegen.config.GlobalSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 public class SerializerUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(SerializerUtils.class);
     private static final String YAML_MINIMIZE_QUOTES_PROPERTY = "org.openapitools.codegen.utils.yaml.minimize.quotes";
     private static final boolean minimizeYamlQuotes = Boolean.parseBoolean(GlobalSettings.getProperty(YAML_MINIMIZE_QUOTES_PROPERTY, "true"));
 
+    /**
+     * The configured writers are immutable and thread-safe, so they are built once (on first use) instead of
+     * copying the swagger mappers for every serialization.
+     */
+    private static final class Writers {
+        private static final ObjectWriter YAML = createYamlWriter();
+        private static final ObjectWriter JSON = createJsonWriter();
+    }
+
     public static String toYamlString(OpenAPI openAPI) {
         if (openAPI == null) {
             return null;
         }
-        SimpleModule module = createModule();
         try {
-            ObjectMapper yamlMapper = Yaml.mapper().copy();
-            // there is an unfortunate YAML condition where user inputs should be treated as strings (e.g. "1234_1234"), but in yaml this is a valid number and
-            // removing quotes forcibly by default means we are potentially doing a data conversion resulting in an unexpected change to the user's YAML outputs.
-            // We may allow for property-based enable/disable, retaining the default of enabled for backward compatibility.
-            if (minimizeYamlQuotes) {
-                ((YAMLFactory) yamlMapper.getFactory()).enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
-            } else {
-                ((YAMLFactory) yamlMapper.getFactory()).disable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
-            }
-            return yamlMapper.registerModule(module)
-                    .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
-                    .writeValueAsString(openAPI)
-                    .replace("\r\n", "\n");
+            return Writers.YAML.writeValueAsString(openAPI).replace("\r\n", "\n");
         } catch (JsonProcessingException e) {
             LOGGER.warn("Can not create yaml content", e);
         }
@@ -47,25 +52,157 @@ public class SerializerUtils {
         if (openAPI == null) {
             return null;
         }
-
-        SimpleModule module = createModule();
         try {
-            return Json.mapper()
-                    .copy()
-                    .registerModule(module)
-                    .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
-                    .writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(openAPI)
-                    .replace("\r\n", "\n");
+            return Writers.JSON.writeValueAsString(openAPI).replace("\r\n", "\n");
         } catch (JsonProcessingException e) {
             LOGGER.warn("Can not create json content", e);
         }
         return null;
     }
 
+    /**
+     * Writes the same content as {@link #toYamlString(OpenAPI)} to the given writer, without building it in memory.
+     * The writer is flushed but not closed.
+     *
+     * @param openAPI the spec to serialize
+     * @param writer  the target
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeYaml(OpenAPI openAPI, Writer writer) throws IOException {
+        if (openAPI != null) {
+            LineFeedWriter target = new LineFeedWriter(writer);
+            Writers.YAML.writeValue(target, openAPI);
+            target.close();
+        }
+    }
+
+    /**
+     * Writes the same content as {@link #toJsonString(OpenAPI)} to the given writer, without building it in memory.
+     * The writer is flushed but not closed.
+     *
+     * @param openAPI the spec to serialize
+     * @param writer  the target
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeJson(OpenAPI openAPI, Writer writer) throws IOException {
+        if (openAPI != null) {
+            LineFeedWriter target = new LineFeedWriter(writer);
+            Writers.JSON.writeValue(target, openAPI);
+            target.close();
+        }
+    }
+
+    /**
+     * Writes the spec in YAML format to the given stream (UTF-8). The stream is flushed but not closed.
+     *
+     * @param openAPI the spec to serialize
+     * @param out     the target
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeYaml(OpenAPI openAPI, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeYaml(openAPI, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the spec in JSON format to the given stream (UTF-8). The stream is flushed but not closed.
+     *
+     * @param openAPI the spec to serialize
+     * @param out     the target
+     * @throws IOException if the spec can't be serialized or written
+     */
+    public static void writeJson(OpenAPI openAPI, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writeJson(openAPI, writer);
+        writer.flush();
+    }
+
+    private static ObjectWriter createYamlWriter() {
+        ObjectMapper yamlMapper = Yaml.mapper().copy();
+        // there is an unfortunate YAML condition where user inputs should be treated as strings (e.g. "1234_1234"), but in yaml this is a valid number and
+        // removing quotes forcibly by default means we are potentially doing a data conversion resulting in an unexpected change to the user's YAML outputs.
+        // We may allow for property-based enable/disable, retaining the default of enabled for backward compatibility.
+        if (minimizeYamlQuotes) {
+            ((YAMLFactory) yamlMapper.getFactory()).enable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        } else {
+            ((YAMLFactory) yamlMapper.getFactory()).disable(YAMLGenerator.Feature.MINIMIZE_QUOTES);
+        }
+        return yamlMapper.registerModule(createModule())
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static ObjectWriter createJsonWriter() {
+        return Json.mapper()
+                .copy()
+                .registerModule(createModule())
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .writerWithDefaultPrettyPrinter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
     private static SimpleModule createModule() {
         SimpleModule module = new SimpleModule("OpenAPIModule");
         module.addSerializer(OpenAPI.class, new OpenAPISerializer());
         return module;
     }
+
+    /**
+     * Turns "\r\n" into "\n" on the fly, like the {@code replace} done on the serialized strings.
+     */
+    private static final class LineFeedWriter extends FilterWriter {
+        private boolean pendingCarriageReturn;
+
+        LineFeedWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                if (c != '\n') {
+                    out.write('\r');
+                }
+            }
+            if (c == '\r') {
+                pendingCarriageReturn = true;
+            } else {
+                out.write(c);
+            }
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+            for (int i = off; i < end; i++) {
+                if (cbuf[i] == '\r' || pendingCarriageReturn) {
+                    out.write(cbuf, start, i - start);
+                    write(cbuf[i]);
+                    start = i + 1;
+                }
+            }
+            out.write(cbuf, start, end - start);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            char[] chars = new char[len];
+            str.getChars(off, off + len, chars, 0);
+            write(chars, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the target is owned by the caller, only write out a trailing carriage return
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                out.write('\r');
+            }
+            out.flush();
+        }
+    }
 }
@@ -5,7 +5,6 @@ import org.openapitools.codegen.TemplateManager;
 import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
-import java.net.URL;
 
 /**
  * Locates generator-agnostic templates from a common built-in location.
@@ -29,6 +28,15 @@ public class CommonTemplateContentLocator implements TemplatePathLocator {
         this.resourceLocation = resourceLocation;
     }
 
+    /**
+     * Identifies the templates this locator resolves, which are always read from the classpath.
+     *
+     * @return the key
+     */
+    public String getEmbeddedTemplatesKey() {
+        return this.resourceLocation;
+    }
+
     /**
      * Get the full path to a relative template file.
      *
@@ -40,8 +48,7 @@ public class CommonTemplateContentLocator implements TemplatePathLocator {
         if (StringUtils.isNotEmpty(relativeTemplateFile)) {
             String loc = this.resourceLocation + File.separator + relativeTemplateFile;
 
-            URL url = this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(loc));
-            if (url != null) {
+            if (EmbeddedTemplateIndex.resourceExists(TemplateManager.getCPResourcePath(loc))) {
                 return loc;
             }
         }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index of the resources embedded in the generator jar (the built-in templates of all generators), written at build
+ * time by {@link #main(String[])}. Each entry is a resource path (e.g. {@code Java/libraries/okhttp-gson/api.mustache}),
+ * from which the generator and library directories follow.
+ * <p>
+ * Locating a template probes up to four locations on the classpath, and most of the probes are misses, which are the
+ * slowest lookups in a large jar. For paths under a directory of the index, {@link #resourceExists(String)} answers from
+ * the index instead. The index is only used when it is read from a jar: when running from a build directory, resources
+ * may have been added since the index was written, so the classpath is probed as before. Likewise, a directory is only
+ * answered from the index when the index's jar is the only classpath root providing it, as other jars (e.g. of custom
+ * generators) may add templates to the same directory.
+ */
+public final class EmbeddedTemplateIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedTemplateIndex.class);
+
+    public static final String RESOURCE = "openapi-generator-templates.idx";
+
+    private static final String HEADER = "# Embedded templates (resource paths), generated at build time";
+
+    private final Set<String> resources;
+    private final Set<String> directories;
+    // the class loader the index was read from, and the jar holding it (null when not read from a class loader)
+    private final ClassLoader classLoader;
+    private final String origin;
+    // directory -> whether no other classpath root provides it
+    private final Map<String, Boolean> singleOrigin = new ConcurrentHashMap<>();
+
+    EmbeddedTemplateIndex(Set<String> resources, ClassLoader classLoader, String origin) {
+        this.resources = resources;
+        this.directories = resources.stream()
+                .filter(path -> path.indexOf('/') > 0)
+                .map(path -> path.substring(0, path.indexOf('/')))
+                .collect(Collectors.toSet());
+        this.classLoader = classLoader;
+        this.origin = origin;
+    }
+
+    private static final class Holder {
+        private static final EmbeddedTemplateIndex INSTANCE = load(EmbeddedTemplateIndex.class.getClassLoader());
+    }
+
+    /**
+     * Determines whether a resource exists on the classpath, using the index when it covers the path.
+     *
+     * @param resourcePath the classpath resource path, with '/' separators
+     * @return true if the resource exists
+     */
+    public static boolean resourceExists(String resourcePath) {
+        EmbeddedTemplateIndex index = Holder.INSTANCE;
+        if (index != null) {
+            return index.exists(resourcePath);
+        }
+        return EmbeddedTemplateIndex.class.getClassLoader().getResource(resourcePath) != null;
+    }
+
+    boolean exists(String resourcePath) {
+        if (covers(resourcePath)) {
+            return contains(resourcePath);
+        }
+        return classLoader.getResource(resourcePath) != null;
+    }
+
+    boolean covers(String resourcePath) {
+        int slash = resourcePath.indexOf('/');
+        // paths which aren't normalized are left to the class loader
+        if (slash <= 0 || !directories.contains(resourcePath.substring(0, slash))
+                || resourcePath.contains("//") || resourcePath.contains("/./") || resourcePath.contains("..")) {
+            return false;
+        }
+        return classLoader == null || singleOrigin.computeIfAbsent(resourcePath.substring(0, slash), this::isSingleOrigin);
+    }
+
+    private boolean isSingleOrigin(String directory) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(directory + "/");
+            boolean found = false;
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if (!origin.equals(jarOf(url))) {
+                    LOGGER.debug("Not using the embedded template index for {}, also provided by {}.", directory, url);
+                    return false;
+                }
+                found = true;
+            }
+            // not found when the jar has no directory entries, other roots can't be ruled out then
+            return found;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String jarOf(URL url) {
+        String location = url.toString();
+        int separator = location.indexOf("!/");
+        return "jar".equals(url.getProtocol()) && separator > 0 ? location.substring(0, separator) : location;
+    }
+
+    boolean contains(String resourcePath) {
+        return resources.contains(resourcePath);
+    }
+
+    static EmbeddedTemplateIndex load(ClassLoader classLoader) {
+        URL url = classLoader.getResource(RESOURCE);
+        if (url == null || !"jar".equals(url.getProtocol())) {
+            LOGGER.debug("Not using the embedded template index ({}).", url == null ? "not found" : url);
+            return null;
+        }
+        try (InputStream is = url.openStream()) {
+            return read(new InputStreamReader(is, StandardCharsets.UTF_8), classLoader, jarOf(url));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read the embedded template index {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    static EmbeddedTemplateIndex read(Reader reader) throws IOException {
+        return read(reader, null, null);
+    }
+
+    static EmbeddedTemplateIndex read(Reader reader, ClassLoader classLoader, String origin) throws IOException {
+        Set<String> resources = new HashSet<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                resources.add(line);
+            }
+        }
+        return new EmbeddedTemplateIndex(resources, classLoader, origin);
+    }
+
+    static void write(Path root, Writer writer) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        SortedSet<String> resources = new TreeSet<>();
+        for (Path file : files) {
+            String path = root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), "/");
+            if (!path.endsWith(".class") && !path.startsWith("META-INF/") && !RESOURCE.equals(path)) {
+                resources.add(path);
+            }
+        }
+        writer.write(HEADER);
+        writer.write("\n");
+        for (String resource : resources) {
+            writer.write(resource);
+            writer.write("\n");
+        }
+    }
+
+    /**
+     * Writes the index of the resources in the given directory (the build output directory) into that directory.
+     *
+     * @param args the directory
+     * @throws IOException if the directory can't be read or the index can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: EmbeddedTemplateIndex <build output directory>");
+        }
+        Path root = Paths.get(args[0]);
+        try (Writer writer = Files.newBufferedWriter(root.resolve(RESOURCE), StandardCharsets.UTF_8)) {
+            write(root, writer);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.openapitools.codegen.api.TemplatePathLocator;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -47,7 +48,22 @@ public class GeneratorTemplateContentLocator implements TemplatePathLocator {
     }
 
     private boolean classpathTemplateExists(String name) {
-        return this.getClass().getClassLoader().getResource(TemplateManager.getCPResourcePath(name)) != null;
+        return EmbeddedTemplateIndex.resourceExists(TemplateManager.getCPResourcePath(name));
+    }
+
+    /**
+     * Identifies the templates this locator resolves when they are all built-in, i.e. the generator doesn't use a
+     * custom template directory and no directory of the file system shadows the embedded one. Generations of the same
+     * generator and library then resolve every template to the same classpath resource.
+     *
+     * @return the key, or {@code null} if templates may be read from the file system
+     */
+    public String getEmbeddedTemplatesKey() {
+        CodegenConfig config = this.codegenConfig;
+        if (!Objects.equals(config.templateDir(), config.embeddedTemplateDir()) || new File(config.templateDir()).exists()) {
+            return null;
+        }
+        return config.getClass().getName() + ":" + config.embeddedTemplateDir() + ":" + StringUtils.defaultString(config.getLibrary());
     }
 
     /**
@@ -20,6 +20,7 @@ import com.github.jknack.handlebars.Context;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Jackson2Helper;
 import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
 import com.github.jknack.handlebars.context.JavaBeanValueResolver;
 import com.github.jknack.handlebars.context.MapValueResolver;
 import com.github.jknack.handlebars.context.MethodValueResolver;
@@ -107,13 +108,16 @@ public class HandlebarsEngineAdapter extends AbstractTemplatingEngineAdapter {
 
     /** Constructs and fully configures a {@link Handlebars} engine for the given executor. */
     private Handlebars buildHandlebars(TemplatingExecutor executor) {
+        // partials are looked up and compiled each time they are included, so both the sources and the
+        // compiled templates are cached for the lifetime of the executor
+        ConcurrentHashMap<String, TemplateSource> sources = new ConcurrentHashMap<>();
         TemplateLoader loader = new AbstractTemplateLoader() {
             @Override
             public TemplateSource sourceAt(String location) {
-                return findTemplate(executor, location);
+                return sources.computeIfAbsent(location, l -> findTemplate(executor, l));
             }
         };
-        Handlebars handlebars = new Handlebars(loader);
+        Handlebars handlebars = new Handlebars(loader).with(new ConcurrentMapTemplateCache());
         handlebars.registerHelperMissing((obj, options) -> {
             LOGGER.warn("Unregistered helper name '{}', processing template:\n{}", options.helperName, options.fn.text());
             return "";
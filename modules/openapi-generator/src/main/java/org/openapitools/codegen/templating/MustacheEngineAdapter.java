@@ -21,6 +21,7 @@ import com.samskivert.mustache.Template;
 import lombok.Getter;
 import lombok.Setter;
 import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.TemplateManager;
 import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.api.TemplatingExecutor;
 import org.slf4j.Logger;
@@ -58,7 +59,8 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
      * Keying on the executor instance eliminates the non-atomic check-clear-update invalidation pattern
      * that the previous single-cache approach required. Each executor gets its own independent inner
      * map, so different executors (e.g. different generator runs, test fixtures) can never observe
-     * each other's compiled templates, and no state ever needs to be cleared.
+     * each other's compiled templates, and no state ever needs to be cleared. The only exception are the
+     * built-in templates shared when {@link #setShareCompiledTemplates(boolean) enabled}.
      * <p>
      * {@link ConcurrentHashMap#computeIfAbsent} guarantees that the inner map for a given executor
      * is created exactly once even under concurrent access.
@@ -66,6 +68,36 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
     private final ConcurrentHashMap<TemplatingExecutor, ConcurrentHashMap<String, Template>> compiledTemplateCaches =
             new ConcurrentHashMap<>();
 
+    /**
+     * Process-wide cache of embedded templates key + template file name → compiled {@link Template}, used when
+     * {@link #setShareCompiledTemplates(boolean) enabled}.
+     * <p>
+     * A compiled template keeps the partials it includes once they are loaded, so it's only shared between executors
+     * resolving every template the same way, i.e. with the same {@link TemplateManager#getEmbeddedTemplatesKey()}.
+     * The key includes the generator class, which is all the compiler depends on (see
+     * {@link org.openapitools.codegen.CodegenConfig#processCompiler(Mustache.Compiler)}). Shared templates load their
+     * partials through {@link #CURRENT_LOADER} rather than through the executor which compiled them, so they don't
+     * keep a finished generation reachable.
+     */
+    private static final ConcurrentHashMap<String, Template> SHARED_TEMPLATES = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Mustache.TemplateLoader> CURRENT_LOADER = new ThreadLocal<>();
+
+    private static volatile boolean shareCompiledTemplates;
+
+    /**
+     * Shares the compiled built-in templates between all the generations of the process (e.g. the generation daemon of
+     * the CLI), instead of compiling them again for each generation. Disabled by default.
+     *
+     * @param share whether to share the compiled templates
+     */
+    public static void setShareCompiledTemplates(boolean share) {
+        shareCompiledTemplates = share;
+        if (!share) {
+            SHARED_TEMPLATES.clear();
+        }
+    }
+
     /**
      * Compiles a template into a string
      *
@@ -87,10 +119,24 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
         // which is harmless because compilation is pure/deterministic.
         Template tmpl = cache.get(templateFile);
         if (tmpl == null) {
-            tmpl = compiler
-                    .withLoader(name -> findTemplate(executor, name))
-                    .defaultValue("")
-                    .compile(executor.getFullTemplateContents(templateFile));
+            String sharedKey = shareCompiledTemplates && executor instanceof TemplateManager
+                    ? ((TemplateManager) executor).getEmbeddedTemplatesKey() : null;
+            if (sharedKey == null) {
+                tmpl = compiler
+                        .withLoader(name -> findTemplate(executor, name))
+                        .defaultValue("")
+                        .compile(executor.getFullTemplateContents(templateFile));
+            } else {
+                sharedKey = sharedKey + templateFile;
+                tmpl = SHARED_TEMPLATES.get(sharedKey);
+                if (tmpl == null) {
+                    tmpl = compiler
+                            .withLoader(name -> CURRENT_LOADER.get().getTemplate(name))
+                            .defaultValue("")
+                            .compile(executor.getFullTemplateContents(templateFile));
+                    SHARED_TEMPLATES.put(sharedKey, tmpl);
+                }
+            }
             cache.put(templateFile, tmpl);
         }
         StringWriter out = new StringWriter();
@@ -104,7 +150,18 @@ public class MustacheEngineAdapter implements TemplatingEngineAdapter {
             // avoid NPE
             parent = new Object();
         }
-        tmpl.execute(bundle, parent, out);
+        // partials are loaded while executing the template
+        Mustache.TemplateLoader previousLoader = CURRENT_LOADER.get();
+        CURRENT_LOADER.set(name -> findTemplate(executor, name));
+        try {
+            tmpl.execute(bundle, parent, out);
+        } finally {
+            if (previousLoader == null) {
+                CURRENT_LOADER.remove();
+            } else {
+                CURRENT_LOADER.set(previousLoader);
+            }
+        }
         return out.toString();
     }
 
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating;
+
+import org.openapitools.codegen.TemplateManager;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * The names referenced by the templates of a generator, as found by a static scan of the resolved templates
+ * (including user overrides and partials).
+ * <p>
+ * The scan over-approximates: every identifier appearing inside a tag is considered referenced, regardless of the
+ * context it is used in. If the templates can't be analyzed reliably (unreadable template directory, helpers dumping
+ * whole objects), {@link #ALL} is returned and every name is considered referenced.
+ */
+public final class TemplateVariableUsage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateVariableUsage.class);
+
+    /**
+     * Usage which considers every name as referenced.
+     */
+    public static final TemplateVariableUsage ALL = new TemplateVariableUsage(null);
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_-]*");
+
+    // helpers which serialize their argument as a whole, and so may read any property
+    private static final Set<String> DUMP_HELPERS = Collections.singleton("json");
+
+    private final Set<String> names;
+
+    private TemplateVariableUsage(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * @param name a variable name, e.g. {@code jsonSchema}
+     * @return false if no template references the name
+     */
+    public boolean isReferenced(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Scans all templates below the given template roots, the given templates and the partials they include.
+     * <p>
+     * Scanning whole template directories covers templates which generators only register late in the generation,
+     * e.g. supporting files added while post-processing operations. Below {@code libraries}, only the folder of the
+     * selected library is scanned, as templates of other libraries can't be resolved.
+     *
+     * @param executor      resolves template contents, honoring user-defined template directories
+     * @param engine        the templating engine used to render the templates
+     * @param templateRoots template directories on the file system or the classpath (e.g. the embedded template dir)
+     * @param library       the selected library, may be null
+     * @param templateFiles the template files to scan (e.g. model.mustache); files not handled by the engine are ignored
+     * @return the variable usage of the templates
+     */
+    public static TemplateVariableUsage analyze(TemplatingExecutor executor, TemplatingEngineAdapter engine,
+                                                Collection<String> templateRoots, String library,
+                                                Collection<String> templateFiles) {
+        Set<String> names = new HashSet<>();
+        Deque<String> partials = new ArrayDeque<>();
+
+        for (String root : templateRoots) {
+            List<String> contents = readTemplateRoot(root, library, engine);
+            if (contents == null) {
+                LOGGER.debug("Unable to list templates in {}, skipping template variable analysis", root);
+                return ALL;
+            }
+            for (String content : contents) {
+                // partials below the root are scanned anyway, no need to resolve them
+                if (!scan(content, names, new ArrayDeque<>())) {
+                    return ALL;
+                }
+            }
+        }
+
+        Set<String> visited = new HashSet<>();
+        for (String templateFile : templateFiles) {
+            if (engine.handlesFile(templateFile)) {
+                partials.add(templateFile);
+            }
+        }
+        while (!partials.isEmpty()) {
+            String template = partials.poll();
+            if (!visited.add(template)) {
+                continue;
+            }
+            String content = readTemplate(executor, engine, template);
+            if (content == null) {
+                // a template which can't be resolved can't be rendered either
+                LOGGER.debug("Unable to read template {}", template);
+                continue;
+            }
+            if (!scan(content, names, partials)) {
+                return ALL;
+            }
+        }
+
+        if (DUMP_HELPERS.stream().anyMatch(names::contains)) {
+            return ALL;
+        }
+        return new TemplateVariableUsage(Collections.unmodifiableSet(names));
+    }
+
+    /**
+     * Collects the names and partials referenced by a template.
+     *
+     * @return false if the template can't be analyzed
+     */
+    private static boolean scan(String content, Set<String> names, Deque<String> partials) {
+        String open = "{{";
+        String close = "}}";
+        int pos = 0;
+        while (true) {
+            int start = content.indexOf(open, pos);
+            if (start < 0) {
+                return true;
+            }
+            int end = content.indexOf(close, start + open.length());
+            if (end < 0) {
+                return true;
+            }
+            String body = content.substring(start + open.length(), end).trim();
+            pos = end + close.length();
+
+            if (body.length() > 1 && body.startsWith("=") && body.endsWith("=")) {
+                // set delimiter, e.g. {{=<% %>=}}
+                String[] delimiters = body.substring(1, body.length() - 1).trim().split("\\s+");
+                if (delimiters.length != 2) {
+                    return false;
+                }
+                open = delimiters[0];
+                close = delimiters[1];
+                continue;
+            }
+            if (body.startsWith("{")) {
+                // unescaped variable, e.g. {{{name}}}
+                body = body.substring(1).trim();
+            }
+            if (body.startsWith("!")) {
+                continue;
+            }
+            String partial = partialName(body);
+            if (partial != null) {
+                partials.add(partial);
+                continue;
+            }
+            Matcher name = NAME.matcher(body);
+            while (name.find()) {
+                names.add(name.group());
+            }
+        }
+    }
+
+    /**
+     * Extracts the partial name of {@code {{> name}}} (both engines), {@code {{#> name}}} (handlebars) or
+     * {@code {{< name}}} (mustache parent template).
+     */
+    private static String partialName(String tagBody) {
+        String body;
+        if (tagBody.startsWith(">") || tagBody.startsWith("<")) {
+            body = tagBody.substring(1);
+        } else if (tagBody.startsWith("#>")) {
+            body = tagBody.substring(2);
+        } else {
+            return null;
+        }
+        String name = body.trim().split("\\s+", 2)[0];
+        return name.replace("\"", "").replace("'", "");
+    }
+
+    private static String readTemplate(TemplatingExecutor executor, TemplatingEngineAdapter engine, String template) {
+        List<String> candidates = new ArrayList<>();
+        int idx = template.lastIndexOf('.');
+        String baseName = idx > 0 ? template.substring(0, idx) : template;
+        for (String extension : engine.getFileExtensions()) {
+            candidates.add(baseName + "." + extension);
+            candidates.add(template + "." + extension);
+        }
+        candidates.add(template);
+
+        for (String candidate : candidates) {
+            try {
+                String content = executor.getFullTemplateContents(candidate);
+                if (content != null) {
+                    return content;
+                }
+            } catch (Exception ignored) {
+                // try the next candidate
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads all templates handled by the engine below a template directory, which may be on the file system or in
+     * the classpath (exploded or within a jar).
+     *
+     * @return the template contents, or null if the directory can't be listed
+     */
+    private static List<String> readTemplateRoot(String root, String library, TemplatingEngineAdapter engine) {
+        try {
+            Path dir = Paths.get(root);
+            if (Files.isDirectory(dir)) {
+                return readTemplates(dir, library, engine);
+            }
+
+            URL url = TemplateVariableUsage.class.getClassLoader().getResource(TemplateManager.getCPResourcePath(root));
+            if (url == null) {
+                return null;
+            }
+            URI uri = url.toURI();
+            if ("file".equals(uri.getScheme())) {
+                return readTemplates(Paths.get(uri), library, engine);
+            }
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem fileSystem;
+                boolean created = false;
+                try {
+                    fileSystem = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                    created = true;
+                } catch (FileSystemAlreadyExistsException e) {
+                    fileSystem = FileSystems.getFileSystem(uri);
+                }
+                try {
+                    return readTemplates(fileSystem.getPath(TemplateManager.getCPResourcePath(root)), library, engine);
+                } finally {
+                    if (created) {
+                        fileSystem.close();
+                    }
+                }
+            }
+            return null;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOGGER.debug("Failed to read templates in {}", root, e);
+            return null;
+        }
+    }
+
+    private static List<String> readTemplates(Path dir, String library, TemplatingEngineAdapter engine) throws IOException {
+        Path libraries = dir.resolve("libraries");
+        Path selectedLibrary = library == null ? null : libraries.resolve(library);
+        List<String> contents = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.startsWith(libraries) && (selectedLibrary == null || !path.startsWith(selectedLibrary))) {
+                    continue;
+                }
+                if (Files.isRegularFile(path) && engine.handlesFile(path.getFileName().toString())) {
+                    contents.add(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return contents;
+    }
+}
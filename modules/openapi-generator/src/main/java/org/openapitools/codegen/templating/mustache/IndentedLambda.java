@@ -104,33 +104,82 @@ public class IndentedLambda implements Mustache.Lambda {
 
     @Override
     public void execute(Template.Fragment fragment, Writer writer) throws IOException {
-        String text = fragment.execute();
-        if (text == null || text.length() == 0) {
-            return;
+        StreamingFilterWriter.execute(fragment, new IndentingWriter(writer));
+    }
+
+    /**
+     * Indents the lines of the fragment as they are written. Lines are only held back when empty lines must be
+     * skipped, as this depends on the whole line.
+     */
+    private final class IndentingWriter extends StreamingFilterWriter {
+        private final String prefixedIndention = StringUtils.repeat(new String(Character.toChars(spaceCode)), prefixSpaceCount);
+        private final StringBuilder line = new StringBuilder();
+        private boolean empty = true;
+        private boolean firstLine = true;
+        private boolean lineStarted;
+        private boolean lineHasContent;
+
+        IndentingWriter(Writer out) {
+            super(out);
         }
 
-        String prefixedIndention = StringUtils.repeat(new String(Character.toChars(spaceCode)), prefixSpaceCount);
-        StringBuilder sb = new StringBuilder();
-        // use \n instead of System.lineSeparator (e.g. \r\n in Windows) as templates use \n
-        String[] lines = text.split("\n", -1);
-        for (int i = 0; i < lines.length; i++) {
-            String line = lines[i];
-            // Mustache will apply correct indentation to the first line of a template (to match declaration location).
-            // So, we want to skip the first line.
-            if (this.indentFirstLine || i > 0) {
-                if (!this.skipEmptyLines || line.trim().length() > 0) {
-                    sb.append(prefixedIndention);
+        @Override
+        protected void accept(char c) throws IOException {
+            empty = false;
+            if (!lineStarted) {
+                startLine();
+            }
+            // use \n instead of System.lineSeparator (e.g. \r\n in Windows) as templates use \n
+            if (c == '\n') {
+                endLine();
+                emit(c);
+                firstLine = false;
+                lineStarted = false;
+            } else if (skipEmptyLines) {
+                line.append(c);
+                // same as line.trim().length() > 0
+                lineHasContent |= c > ' ';
+            } else {
+                emit(c);
+            }
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            // like splitting on \n, the text after the last line break is a line of its own, even if empty
+            if (!empty) {
+                if (!lineStarted) {
+                    startLine();
                 }
-                if (prefix != null) sb.append(prefix);
+                endLine();
             }
+        }
+
+        private void startLine() throws IOException {
+            lineStarted = true;
+            if (!skipEmptyLines) {
+                indent();
+            }
+        }
 
-            sb.append(line);
+        private void endLine() throws IOException {
+            if (skipEmptyLines) {
+                indent();
+                emit(line);
+                line.setLength(0);
+                lineHasContent = false;
+            }
+        }
 
-            // We've split on \n. We don't want to add an additional trailing line.
-            if (i < lines.length - 1) {
-                sb.append("\n");
+        private void indent() throws IOException {
+            // Mustache will apply correct indentation to the first line of a template (to match declaration location).
+            // So, we want to skip the first line.
+            if (indentFirstLine || !firstLine) {
+                if (!skipEmptyLines || lineHasContent) {
+                    emit(prefixedIndention);
+                }
+                if (prefix != null) emit(prefix);
             }
         }
-        writer.write(sb.toString());
     }
 }
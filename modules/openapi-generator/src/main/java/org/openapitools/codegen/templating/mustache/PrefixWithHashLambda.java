@@ -39,11 +39,55 @@ import java.io.Writer;
 public class PrefixWithHashLambda implements Mustache.Lambda {
     private static final String WITH_HASH = "\n#";
 
-    private static final String NEWLINE_REGEX = "\\R";
-
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        writer.write(fragment.execute().replaceAll(NEWLINE_REGEX, WITH_HASH));
+        StreamingFilterWriter.execute(fragment, new HashPrefixingWriter(writer));
+    }
+
+    /**
+     * Streaming equivalent of {@code replaceAll("\\R", "\n#")}.
+     */
+    private static final class HashPrefixingWriter extends StreamingFilterWriter {
+        private boolean pendingCarriageReturn;
+
+        HashPrefixingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void accept(char c) throws IOException {
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                emit(WITH_HASH);
+                if (c == '\n') {
+                    // \r\n is a single line break
+                    return;
+                }
+            }
+            switch (c) {
+                case '\r':
+                    pendingCarriageReturn = true;
+                    break;
+                case '\n':
+                case '\u000B':
+                case '\f':
+                case '\u0085':
+                case '\u2028':
+                case '\u2029':
+                    emit(WITH_HASH);
+                    break;
+                default:
+                    emit(c);
+            }
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            if (pendingCarriageReturn) {
+                pendingCarriageReturn = false;
+                emit(WITH_HASH);
+            }
+        }
     }
 
 }
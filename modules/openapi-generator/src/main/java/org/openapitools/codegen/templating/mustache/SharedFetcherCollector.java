@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.templating.mustache;
+
+import com.samskivert.mustache.DefaultCollector;
+import com.samskivert.mustache.Mustache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A JMustache collector which shares the variable fetchers between all the templates it is used for.
+ * <p>
+ * JMustache caches the fetcher resolving a name on a class (e.g. {@code name} on {@code CodegenProperty}) per
+ * compiled template, and every inclusion of a partial is compiled into a template of its own. Resolving a fetcher
+ * searches the class hierarchy for a {@code name()}, {@code getName()} or {@code isName()} method or a {@code name}
+ * field, which is comparatively expensive for the large Codegen* classes. As the fetcher only depends on the class
+ * and the name, this collector resolves it once and hands the same cache to all the templates.
+ */
+public class SharedFetcherCollector extends DefaultCollector {
+
+    private final Map<Object, Mustache.VariableFetcher> fetchers = new ConcurrentHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> createFetcherCache() {
+        return (Map<K, V>) fetchers;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.openapitools.codegen.templating.mustache;
+
+import com.samskivert.mustache.Template;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Base of the writers used by lambdas to transform the text of a fragment while it is rendered, instead of rendering
+ * it to a string first. Subclasses are state machines consuming one character at a time; as lambdas render their
+ * fragment into such a writer, nested lambdas are chained without copying the text at every level.
+ * <p>
+ * Closing the writer completes the transformation, but doesn't close the target writer.
+ */
+abstract class StreamingFilterWriter extends Writer {
+    private final Writer out;
+    private final char[] buffer = new char[1024];
+    private int length;
+
+    protected StreamingFilterWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Renders the fragment through the given filter.
+     *
+     * @param fragment the fragment to render
+     * @param filter   the filter writing to the lambda's writer
+     * @throws IOException if the output can't be written
+     */
+    static void execute(Template.Fragment fragment, StreamingFilterWriter filter) throws IOException {
+        try (StreamingFilterWriter out = filter) {
+            fragment.execute(out);
+        }
+    }
+
+    /**
+     * Consumes the next character of the fragment.
+     *
+     * @param c the character
+     * @throws IOException if the output can't be written
+     */
+    protected abstract void accept(char c) throws IOException;
+
+    /**
+     * Called once the whole fragment has been consumed, to write out any pending state.
+     *
+     * @throws IOException if the output can't be written
+     */
+    protected void finish() throws IOException {
+    }
+
+    protected final void emit(char c) throws IOException {
+        if (length == buffer.length) {
+            drain();
+        }
+        buffer[length++] = c;
+    }
+
+    protected final void emit(CharSequence chars) throws IOException {
+        for (int i = 0; i < chars.length(); i++) {
+            emit(chars.charAt(i));
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        accept((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            accept(str.charAt(i));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        drain();
+    }
+}
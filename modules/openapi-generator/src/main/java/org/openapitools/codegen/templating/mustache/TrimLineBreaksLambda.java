@@ -36,12 +36,38 @@ import java.io.Writer;
  * </pre>
  */
 public class TrimLineBreaksLambda implements Mustache.Lambda {
-    private static final String SINGLE_LINE_BREAK = "\n\n";
-
-    private static final String LINE_BREAK_REGEX = "\n\n+";
 
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        writer.write(fragment.execute().replaceAll(LINE_BREAK_REGEX, SINGLE_LINE_BREAK));
+        StreamingFilterWriter.execute(fragment, new LineBreakCollapsingWriter(writer));
+    }
+
+    /**
+     * Streaming equivalent of {@code replaceAll("\n\n+", "\n\n")}.
+     */
+    private static final class LineBreakCollapsingWriter extends StreamingFilterWriter {
+        private int pendingLineBreaks;
+
+        LineBreakCollapsingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void accept(char c) throws IOException {
+            if (c == '\n') {
+                pendingLineBreaks++;
+                return;
+            }
+            finish();
+            emit(c);
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            for (int i = 0; i < Math.min(pendingLineBreaks, 2); i++) {
+                emit('\n');
+            }
+            pendingLineBreaks = 0;
+        }
     }
 }
@@ -44,10 +44,35 @@ public class TrimTrailingWhiteSpaceLambda implements Mustache.Lambda {
 
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        writer.write(fragment.execute().stripTrailing());
+        StreamingFilterWriter.execute(fragment, new TrailingWhitespaceStrippingWriter(writer));
 
         if (this.withNewLine) {
             writer.write("\n");
         }
     }
+
+    /**
+     * Streaming equivalent of {@link String#stripTrailing()}: whitespace is held back until a non-whitespace
+     * character follows it, and dropped at the end.
+     */
+    private static final class TrailingWhitespaceStrippingWriter extends StreamingFilterWriter {
+        private final StringBuilder pendingWhitespace = new StringBuilder();
+
+        TrailingWhitespaceStrippingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void accept(char c) throws IOException {
+            if (Character.isWhitespace(c)) {
+                pendingWhitespace.append(c);
+                return;
+            }
+            if (pendingWhitespace.length() > 0) {
+                emit(pendingWhitespace);
+                pendingWhitespace.setLength(0);
+            }
+            emit(c);
+        }
+    }
 }
@@ -37,13 +37,40 @@ import java.io.Writer;
  * </pre>
  */
 public class TrimWhitespaceLambda implements Mustache.Lambda {
-    private static final String SINGLE_SPACE = " ";
-
-    private static final String WHITESPACE_REGEX = "\\s+";
 
     @Override
     public void execute(Fragment fragment, Writer writer) throws IOException {
-        writer.write(fragment.execute().replaceAll(WHITESPACE_REGEX, SINGLE_SPACE));
+        StreamingFilterWriter.execute(fragment, new WhitespaceCollapsingWriter(writer));
+    }
+
+    /**
+     * Streaming equivalent of {@code replaceAll("\\s+", " ")}.
+     */
+    private static final class WhitespaceCollapsingWriter extends StreamingFilterWriter {
+        private boolean pendingWhitespace;
+
+        WhitespaceCollapsingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        protected void accept(char c) throws IOException {
+            // the characters matched by \s
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                pendingWhitespace = true;
+                return;
+            }
+            finish();
+            emit(c);
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            if (pendingWhitespace) {
+                pendingWhitespace = false;
+                emit(' ');
+            }
+        }
     }
 
 }
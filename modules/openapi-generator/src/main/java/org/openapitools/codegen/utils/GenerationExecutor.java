@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs generations concurrently: on virtual threads when the runtime supports them (Java 21 or later), on a pool of
+ * platform threads otherwise.
+ * <p>
+ * With virtual threads every task gets its own thread, so the tasks don't queue for a thread but for the CPU: the
+ * CPU-heavy stages of a task (e.g. the generation itself, as opposed to fetching the spec) are run through
+ * {@link #cpuBound(Callable)}, which lets at most as many of them run at a time as there are cores.
+ * <p>
+ * Related tasks are forked in a {@link Scope}, which bounds each task with its own timeout, can cancel the remaining
+ * tasks once one fails, and cancels whatever is still running when it's closed.
+ */
+public final class GenerationExecutor implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationExecutor.class);
+    // the deadline of the scope task run by the current thread, if any
+    private static final ThreadLocal<GenerationExecutor.Deadline> DEADLINE = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore cpu;
+    private final ScheduledThreadPoolExecutor timer;
+
+    private GenerationExecutor(ExecutorService executor, boolean virtualThreads, int cpuPermits) {
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        this.cpu = new Semaphore(cpuPermits, true);
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads("generation-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Creates an executor.
+     *
+     * @param preferVirtualThreads use virtual threads if the runtime supports them
+     * @param platformThreads      the number of threads used when not using virtual threads
+     * @return the executor, to be closed once done
+     */
+    public static GenerationExecutor create(boolean preferVirtualThreads, int platformThreads) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (preferVirtualThreads) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                return new GenerationExecutor(virtual, true, cores);
+            }
+            LOGGER.warn("Virtual threads require Java 21 or later, using {} platform threads.", platformThreads);
+        }
+        return new GenerationExecutor(Executors.newFixedThreadPool(Math.max(1, platformThreads), daemonThreads("generation")),
+                false, cores);
+    }
+
+    // the code base targets Java 11
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // a task which was given up on (timed out, cancelled) doesn't keep the JVM alive
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Runs a task.
+     *
+     * @param task the task
+     * @param <T>  the type of the result
+     * @return the future result
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Runs a CPU-heavy stage in the current thread, once fewer such stages than there are cores are running. The time
+     * a scope task waits to run the stage doesn't count towards its timeout.
+     *
+     * @param stage the stage
+     * @param <T>   the type of the result
+     * @return the result of the stage
+     * @throws Exception if the stage fails, or InterruptedException if interrupted while waiting
+     */
+    public <T> T cpuBound(Callable<T> stage) throws Exception {
+        Deadline deadline = DEADLINE.get();
+        if (deadline != null) {
+            deadline.pause();
+        }
+        try {
+            cpu.acquire();
+        } finally {
+            if (deadline != null) {
+                deadline.resume();
+            }
+        }
+        try {
+            return stage.call();
+        } finally {
+            cpu.release();
+        }
+    }
+
+    /**
+     * Opens a scope for related tasks.
+     *
+     * @param cancelOnFailure cancel the other tasks of the scope once one fails
+     * @param <T>             the type of the results
+     * @return the scope, to be closed once done
+     */
+    public <T> Scope<T> scope(boolean cancelOnFailure) {
+        return new Scope<>(cancelOnFailure);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /**
+     * The tasks forked in a scope. {@link #join()} waits for all of them to complete, {@link #close()} cancels those
+     * still running.
+     *
+     * @param <T> the type of the results
+     */
+    public final class Scope<T> implements AutoCloseable {
+        private final boolean cancelOnFailure;
+        private final List<Subtask<T>> subtasks = new ArrayList<>();
+        private volatile boolean shutdown;
+
+        private Scope(boolean cancelOnFailure) {
+            this.cancelOnFailure = cancelOnFailure;
+        }
+
+        /**
+         * Starts a task.
+         *
+         * @param task    the task
+         * @param timeout the time the task may run for, from the moment it starts and not counting the time it waits in
+         *                {@link #cpuBound(Callable)}, or null for no limit
+         * @return the task, whose outcome is available once the scope is joined
+         */
+        public synchronized Subtask<T> fork(Callable<T> task, Duration timeout) {
+            Subtask<T> subtask = new Subtask<>();
+            subtasks.add(subtask);
+            if (shutdown) {
+                subtask.state = Subtask.State.CANCELLED;
+                return subtask;
+            }
+            // the future is known before the task starts, for its deadline
+            FutureTask<T> future = new FutureTask<>(() -> {
+                Deadline deadline = timeout == null ? null : new Deadline(timeout, () -> timeOut(subtask));
+                if (deadline != null) {
+                    deadline.resume();
+                    DEADLINE.set(deadline);
+                }
+                try {
+                    return task.call();
+                } catch (Exception | Error e) {
+                    if (cancelOnFailure) {
+                        shutdown(subtask);
+                    }
+                    throw e;
+                } finally {
+                    if (deadline != null) {
+                        DEADLINE.remove();
+                        deadline.pause();
+                    }
+                }
+            });
+            subtask.future = future;
+            executor.execute(future);
+            return subtask;
+        }
+
+        private void timeOut(Subtask<T> subtask) {
+            subtask.timedOut = true;
+            subtask.future.cancel(true);
+            if (cancelOnFailure) {
+                shutdown(subtask);
+            }
+        }
+
+        /**
+         * Waits for all the tasks to complete (or to be given up on, when timed out or cancelled).
+         *
+         * @throws InterruptedException if interrupted while waiting
+         */
+        public void join() throws InterruptedException {
+            List<Subtask<T>> forked;
+            synchronized (this) {
+                forked = new ArrayList<>(subtasks);
+            }
+            for (Subtask<T> subtask : forked) {
+                subtask.await();
+            }
+        }
+
+        /**
+         * Cancels the tasks which haven't completed yet, and those forked from now on.
+         */
+        public void shutdown() {
+            shutdown(null);
+        }
+
+        // the failed task isn't cancelled, so that its outcome is kept
+        private synchronized void shutdown(Subtask<T> failed) {
+            shutdown = true;
+            for (Subtask<T> subtask : subtasks) {
+                if (subtask != failed && subtask.future != null) {
+                    subtask.future.cancel(true);
+                }
+            }
+        }
+
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public void close() {
+            shutdown();
+        }
+    }
+
+    /**
+     * The timeout of a scope task, which can be paused while the task waits for the CPU.
+     */
+    private final class Deadline {
+        private final Runnable onExpiry;
+        private long remainingNanos;
+        private long resumedAt;
+        private ScheduledFuture<?> expiry;
+
+        private Deadline(Duration timeout, Runnable onExpiry) {
+            this.onExpiry = onExpiry;
+            this.remainingNanos = timeout.toNanos();
+        }
+
+        private synchronized void resume() {
+            if (expiry == null) {
+                resumedAt = System.nanoTime();
+                expiry = timer.schedule(onExpiry, Math.max(remainingNanos, 0), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private synchronized void pause() {
+            if (expiry != null) {
+                expiry.cancel(false);
+                expiry = null;
+                remainingNanos -= System.nanoTime() - resumedAt;
+            }
+        }
+    }
+
+    /**
+     * A task forked in a {@link Scope}.
+     *
+     * @param <T> the type of the result
+     */
+    public static final class Subtask<T> {
+        public enum State {RUNNING, SUCCESS, FAILED, TIMED_OUT, CANCELLED}
+
+        private volatile Future<T> future;
+        private volatile boolean timedOut;
+        private volatile State state = State.RUNNING;
+        private T result;
+        private Throwable exception;
+
+        private void await() throws InterruptedException {
+            if (future == null) {
+                return;
+            }
+            try {
+                result = future.get();
+                state = State.SUCCESS;
+            } catch (CancellationException e) {
+                state = timedOut ? State.TIMED_OUT : State.CANCELLED;
+            } catch (ExecutionException e) {
+                exception = e.getCause();
+                state = timedOut ? State.TIMED_OUT : State.FAILED;
+            }
+        }
+
+        /**
+         * @return the outcome of the task, {@link State#RUNNING} until the scope is joined
+         */
+        public State state() {
+            return state;
+        }
+
+        /**
+         * @return the result of a successful task
+         */
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Task " + state.name().toLowerCase(Locale.ROOT));
+            }
+            return result;
+        }
+
+        /**
+         * @return the exception a failed task threw, or null
+         */
+        public Throwable exception() {
+            return exception;
+        }
+    }
+}
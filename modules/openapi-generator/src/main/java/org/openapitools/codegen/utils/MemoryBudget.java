@@ -0,0 +1,153 @@
+/*
+ * Copyright 2018 OpenAPI-Generator Contributors (https://openapi-generator.tech)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.openapitools.codegen.utils;
+
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Samples the heap usage after each phase of a generation (parse, normalize, models, ...) and checks it against an
+ * optional memory budget.
+ * <p>
+ * Reporting is enabled with the global property {@code memoryReport}, the budget is set with the global property
+ * {@code memoryBudget} (e.g. {@code 2g} or {@code 512m}) and implies reporting. Once the budget has been exceeded,
+ * {@link #isExceeded()} returns true for the rest of the generation, and the generator releases data it no longer
+ * needs as early as possible.
+ */
+public class MemoryBudget {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryBudget.class);
+
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * A budget which neither reports nor limits anything.
+     */
+    public static final MemoryBudget NONE = new MemoryBudget(false, 0, () -> 0L);
+
+    private final boolean report;
+    private final long budget;
+    private final LongSupplier heapUsage;
+    private long previous = -1;
+    private boolean exceeded;
+
+    MemoryBudget(boolean report, long budget, LongSupplier heapUsage) {
+        this.report = report || budget > 0;
+        this.budget = budget;
+        this.heapUsage = heapUsage;
+    }
+
+    /**
+     * Creates the budget configured by the global properties {@code memoryReport} and {@code memoryBudget}.
+     *
+     * @return the configured budget, or {@link #NONE}
+     */
+    public static MemoryBudget fromGlobalSettings() {
+        boolean report = Boolean.parseBoolean(GlobalSettings.getProperty(CodegenConstants.MEMORY_REPORT));
+        String budget = GlobalSettings.getProperty(CodegenConstants.MEMORY_BUDGET);
+        if (!report && (budget == null || budget.isEmpty())) {
+            return NONE;
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        return new MemoryBudget(report, parseSize(budget), () -> memory.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Parses a size such as {@code 1073741824}, {@code 1024k}, {@code 512m} or {@code 2g}.
+     *
+     * @param size the size, may be null or empty
+     * @return the size in bytes, or 0 if no size is given
+     */
+    public static long parseSize(String size) {
+        if (size == null || size.trim().isEmpty()) {
+            return 0;
+        }
+        String value = size.trim().toLowerCase(Locale.ROOT);
+        long unit = 1;
+        switch (value.charAt(value.length() - 1)) {
+            case 'k':
+                unit = 1024;
+                break;
+            case 'm':
+                unit = MB;
+                break;
+            case 'g':
+                unit = MB * 1024;
+                break;
+            default:
+                break;
+        }
+        if (unit > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value.trim()) * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid memory budget '" + size + "', expected e.g. 512m or 2g", e);
+        }
+    }
+
+    /**
+     * @return true if the heap usage is reported or checked against a budget
+     */
+    public boolean isEnabled() {
+        return report;
+    }
+
+    /**
+     * @return true if the heap usage exceeded the budget in one of the samples taken so far
+     */
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    /**
+     * Samples the heap usage at the end of a phase and logs it along with the size of the main structures.
+     *
+     * @param phase      the phase which just completed, e.g. {@code models}
+     * @param structures the number of entries of the main structures alive after the phase, e.g. {@code models=42}
+     * @return true if the budget has been exceeded
+     */
+    public boolean sample(String phase, Map<String, Integer> structures) {
+        if (!report) {
+            return false;
+        }
+        long used = heapUsage.getAsLong();
+        String sizes = structures.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", "));
+        LOGGER.info("Heap usage after {}: {} MB ({}{} MB){}", phase, used / MB,
+                used >= previous ? "+" : "", previous < 0 ? used / MB : (used - previous) / MB,
+                sizes.isEmpty() ? "" : "; " + sizes);
+        previous = used;
+
+        if (budget > 0 && used > budget && !exceeded) {
+            exceeded = true;
+            LOGGER.warn("Heap usage of {} MB after {} exceeds the memory budget of {} MB. Releasing caches and " +
+                    "rendered data early for the rest of the generation.", used / MB, phase, budget / MB);
+        }
+        return exceeded;
+    }
+}
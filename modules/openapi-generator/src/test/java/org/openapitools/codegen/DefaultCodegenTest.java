@@ -1171,6 +1171,31 @@ public class DefaultCodegenTest {
         assertEquals(getRequiredVars(childModel), Collections.singletonList("name"));
     }
 
+    @Test
+    public void testShareModelProperties() {
+        final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        final Schema schema = openAPI.getComponents().getSchemas().get("Pet");
+        final DefaultCodegen codegen = new DefaultCodegen();
+        codegen.setOpenAPI(openAPI);
+
+        CodegenModel model = codegen.fromModel("Pet", schema);
+        CodegenProperty name = model.vars.stream().filter(p -> "name".equals(p.baseName)).findFirst().get();
+        assertNotSame(model.allVars.get(model.vars.indexOf(name)), name);
+        assertNotSame(model.requiredVars.get(0), name);
+
+        codegen.setShareModelProperties(true);
+        CodegenModel compact = codegen.fromModel("Pet", schema);
+        CodegenProperty sharedName = compact.requiredVars.get(0);
+        // vars and allVars are post-processed, so they keep their own clones
+        CodegenProperty compactName = compact.vars.stream().filter(p -> "name".equals(p.baseName)).findFirst().get();
+        assertNotSame(compact.allVars.get(compact.vars.indexOf(compactName)), compactName);
+        assertNotSame(compactName, sharedName);
+        assertSame(compact.readWriteVars.get(compact.readWriteVars.indexOf(sharedName)), sharedName);
+        assertEquals(compact.vars, model.vars);
+        assertEquals(compact.requiredVars, model.requiredVars);
+        assertEquals(compact.optionalVars, model.optionalVars);
+    }
+
     @Test
     public void testAllOfSingleAndDoubleRefWithOwnPropsNoDiscriminator() {
         final OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/allOf_composition.yaml");
@@ -1,22 +1,33 @@
 package org.openapitools.codegen;
 
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.ObjectSchema;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.parameters.QueryParameter;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
 import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import io.swagger.v3.oas.models.security.SecurityScheme;
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.config.CodegenConfigurator;
 import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.languages.JavaClientCodegen;
 import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.model.SupportingFilesBundle;
+import org.openapitools.codegen.templating.TemplateVariableUsage;
 import org.openapitools.codegen.utils.ModelUtils;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.File;
@@ -26,6 +37,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class DefaultGeneratorTest {
 
@@ -115,6 +128,86 @@ public class DefaultGeneratorTest {
         }
     }
 
+    @Test
+    public void testVerifyOnly() throws IOException {
+        Path target = Files.createTempDirectory("test");
+        File output = target.toFile();
+        try {
+            petstoreGenerator(target, false).generate();
+
+            Path model = target.resolve("src/main/java/org/openapitools/client/model/Category.java").toAbsolutePath();
+            Path api = target.resolve("src/main/java/org/openapitools/client/api/PetApi.java").toAbsolutePath();
+            Path removed = target.resolve("src/main/java/org/openapitools/client/model/Removed.java").toAbsolutePath();
+            Path filesMetadata = target.resolve(".openapi-generator/FILES").toAbsolutePath();
+            Files.write(model, "// changed".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Files.delete(api);
+            Files.write(removed, "class Removed {}".getBytes(StandardCharsets.UTF_8));
+            Files.write(filesMetadata, "src/main/java/org/openapitools/client/model/Removed.java\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            byte[] changed = Files.readAllBytes(model);
+
+            DefaultGenerator generator = petstoreGenerator(target, true);
+            generator.generate();
+            VerifyingTemplateManager verifier = (VerifyingTemplateManager) generator.getTemplateProcessor();
+            verifier.verifyFilesMetadata(target, filesMetadata);
+
+            Map<Path, VerifyingTemplateManager.Difference> differences = verifier.getDifferences();
+            Assert.assertEquals(differences.get(model), VerifyingTemplateManager.Difference.CHANGED);
+            Assert.assertEquals(differences.get(api), VerifyingTemplateManager.Difference.MISSING);
+            Assert.assertEquals(differences.get(removed), VerifyingTemplateManager.Difference.NOT_GENERATED);
+            Assert.assertEquals(differences.get(filesMetadata), VerifyingTemplateManager.Difference.CHANGED);
+            Assert.assertEquals(differences.size(), 4, differences.toString());
+
+            // nothing was written
+            Assert.assertEquals(Files.readAllBytes(model), changed);
+            Assert.assertFalse(Files.exists(api));
+        } finally {
+            FileUtils.deleteDirectory(output);
+        }
+    }
+
+    @Test
+    public void testVerifyOnlyComparesFilesWrittenByGenerator() throws IOException {
+        Path target = Files.createTempDirectory("test");
+        File output = target.toFile();
+        try {
+            // the openapi generator writes openapi.json itself, rather than from a template
+            petstoreGenerator(target, false, "openapi").generate();
+
+            Path json = target.resolve("openapi.json").toAbsolutePath();
+            Files.write(json, "{}".getBytes(StandardCharsets.UTF_8));
+
+            DefaultGenerator generator = petstoreGenerator(target, true, "openapi");
+            generator.generate();
+            Map<Path, VerifyingTemplateManager.Difference> differences =
+                    ((VerifyingTemplateManager) generator.getTemplateProcessor()).getDifferences();
+
+            Assert.assertEquals(differences.get(json), VerifyingTemplateManager.Difference.CHANGED);
+            Assert.assertEquals(differences.size(), 1, differences.toString());
+            // nothing was written
+            Assert.assertEquals(Files.readAllBytes(json), "{}".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            FileUtils.deleteDirectory(output);
+        }
+    }
+
+    private static DefaultGenerator petstoreGenerator(Path target, boolean verifyOnly) {
+        return petstoreGenerator(target, verifyOnly, "java");
+    }
+
+    private static DefaultGenerator petstoreGenerator(Path target, boolean verifyOnly, String generatorName) {
+        final CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName(generatorName)
+                .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                .setOutputDir(target.toAbsolutePath().toString());
+
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.setVerifyOnly(verifyOnly);
+        generator.setGeneratorPropertyDefault(CodegenConstants.MODEL_TESTS, "false");
+        generator.setGeneratorPropertyDefault(CodegenConstants.API_TESTS, "false");
+        generator.opts(configurator.toClientOptInput());
+        return generator;
+    }
+
     @SuppressWarnings("ResultOfMethodCallIgnored")
     @Test
     public void testFilesAreNeverOverwritten() throws IOException {
@@ -287,6 +380,79 @@ public class DefaultGeneratorTest {
         }
     }
 
+    @Test
+    public void testParallelSupportingFilesMatchSequentialOutput() throws IOException {
+        assertSameOutput("java", "src/test/resources/3_0/petstore.yaml", CodegenConstants.PARALLEL_SUPPORTING_FILES, "true",
+                generator -> {
+                    generator.setGeneratorPropertyDefault(CodegenConstants.MODELS, "false");
+                    generator.setGeneratorPropertyDefault(CodegenConstants.APIS, "false");
+                    generator.setGeneratorPropertyDefault(CodegenConstants.SUPPORTING_FILES, "true");
+                });
+    }
+
+    private static void assertSameOutput(String generatorName, String inputSpec, String globalProperty, String value)
+            throws IOException {
+        assertSameOutput(generatorName, inputSpec, globalProperty, value, generator -> {
+        });
+    }
+
+    /**
+     * Generates the spec twice, the second time with the given global property set, and checks that both generations
+     * wrote the same files with the same contents.
+     */
+    private static void assertSameOutput(String generatorName, String inputSpec, String globalProperty, String value,
+                                         Consumer<DefaultGenerator> setup) throws IOException {
+        Path regular = Files.createTempDirectory("test");
+        Path other = Files.createTempDirectory("test");
+        try {
+            List<File> regularFiles = generate(generatorName, inputSpec, regular, null, null, setup);
+            List<File> otherFiles = generate(generatorName, inputSpec, other, globalProperty, value, setup);
+
+            Assert.assertFalse(regularFiles.isEmpty());
+            Assert.assertEquals(relativePaths(other, otherFiles), relativePaths(regular, regularFiles));
+            for (Path relative : relativePaths(regular, regularFiles)) {
+                Path expected = regular.resolve(relative);
+                Path actual = other.resolve(relative);
+                if (relative.endsWith("README.md")) {
+                    // the README may carry the generation timestamp
+                    Assert.assertEquals(withoutBuildDate(Files.readAllLines(actual)), withoutBuildDate(Files.readAllLines(expected)),
+                            relative.toString());
+                } else {
+                    Assert.assertEquals(Files.readAllBytes(actual), Files.readAllBytes(expected), relative.toString());
+                }
+            }
+        } finally {
+            GlobalSettings.reset();
+            FileUtils.deleteDirectory(regular.toFile());
+            FileUtils.deleteDirectory(other.toFile());
+        }
+    }
+
+    private static List<File> generate(String generatorName, String inputSpec, Path target, String globalProperty,
+                                       String value, Consumer<DefaultGenerator> setup) {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName(generatorName)
+                .setInputSpec(inputSpec)
+                .addAdditionalProperty(CodegenConstants.HIDE_GENERATION_TIMESTAMP, true)
+                .setOutputDir(target.toAbsolutePath().toString());
+        if (globalProperty != null) {
+            configurator.addGlobalProperty(globalProperty, value);
+        }
+        DefaultGenerator generator = new DefaultGenerator();
+        setup.accept(generator);
+        return generator.opts(configurator.toClientOptInput()).generate();
+    }
+
+    private static List<Path> relativePaths(Path target, List<File> files) {
+        return files.stream()
+                .map(file -> target.toAbsolutePath().relativize(file.toPath().toAbsolutePath()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> withoutBuildDate(List<String> lines) {
+        return lines.stream().filter(line -> !line.trim().startsWith("- Build date:")).collect(Collectors.toList());
+    }
+
     @Test
     public void supportCustomTemplateEngine() throws IOException {
         Path target = Files.createTempDirectory("test");
@@ -722,6 +888,257 @@ public class DefaultGeneratorTest {
         Assert.assertEquals(servers.get(0).url, "/relative/url");
     }
 
+    @Test
+    public void testSupportFileBundleComputesExpensiveValuesOnDemand() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        DefaultCodegen config = new DefaultCodegen();
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        final DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        SupportingFilesBundle bundle = (SupportingFilesBundle) generator.buildSupportFileBundle(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        Assert.assertTrue(bundle.isPending("servers"));
+        Assert.assertTrue(bundle.isPending("authMethods"));
+        Assert.assertTrue(bundle.isPending("oauthMethods"));
+
+        Assert.assertEquals(bundle.get("hasOAuthMethods"), Boolean.TRUE);
+        Assert.assertTrue(bundle.isPending("oauthMethods"));
+        Assert.assertTrue(bundle.isPending("servers"));
+        Assert.assertFalse(bundle.containsKey("hasHttpBearerMethods"));
+        Assert.assertFalse(bundle.containsKey("httpBearerMethods"));
+        Assert.assertEquals(((List<?>) bundle.get("apiKeyMethods")).size(), 1);
+
+        Assert.assertEquals(bundle.get("hasServers"), Boolean.TRUE);
+        Assert.assertEquals(((List<?>) bundle.get("servers")).size(), 1);
+        Assert.assertEquals(bundle.get("hasOperationServers"), Boolean.FALSE);
+    }
+
+    @Test
+    public void testChangedImportMappingsAreUsedForLaterModels() {
+        OpenAPI openAPI = new OpenAPI()
+                .info(new Info().title("imports").version("1.0"))
+                .paths(new Paths())
+                .components(new Components()
+                        .addSchemas("Tag", new ObjectSchema().addProperty("name", new StringSchema()))
+                        .addSchemas("Article", new ObjectSchema().addProperty("tag", new Schema<>().$ref("#/components/schemas/Tag")))
+                        .addSchemas("Comment", new ObjectSchema().addProperty("tag", new Schema<>().$ref("#/components/schemas/Tag"))));
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        List<String> tagImports = new ArrayList<>();
+        DefaultCodegen config = new DefaultCodegen() {
+            @Override
+            public ModelsMap postProcessModels(ModelsMap objs) {
+                objs.getImports().stream()
+                        .map(im -> im.get("import"))
+                        .filter(im -> im.endsWith(".Tag"))
+                        .forEach(tagImports::add);
+                // same number of mappings, but another value
+                importMapping().put("Tag", "second.Tag");
+                return super.postProcessModels(objs);
+            }
+        };
+        config.importMapping().put("Tag", "first.Tag");
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        generator.generateModels(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+        Assert.assertEquals(tagImports, Arrays.asList("first.Tag", "second.Tag"));
+    }
+
+    @Test
+    public void testSecuritySchemesAreConvertedOncePerSecurityRequirements() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        List<Map<String, SecurityScheme>> conversions = new ArrayList<>();
+        DefaultCodegen config = new DefaultCodegen() {
+            @Override
+            public List<CodegenSecurity> fromSecurity(Map<String, SecurityScheme> securitySchemeMap) {
+                conversions.add(securitySchemeMap);
+                return super.fromSecurity(securitySchemeMap);
+            }
+        };
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        List<CodegenOperation> operations = new ArrayList<>();
+        generator.processPaths(openAPI.getPaths()).values().forEach(operations::addAll);
+
+        // petstore uses 3 distinct security requirements across its operations
+        Assert.assertEquals(conversions.size(), 3);
+        CodegenOperation addPet = operations.stream().filter(op -> "addPet".equals(op.operationId)).findFirst().get();
+        CodegenOperation updatePet = operations.stream().filter(op -> "updatePet".equals(op.operationId)).findFirst().get();
+        Assert.assertTrue(addPet.hasAuthMethods);
+        Assert.assertEquals(addPet.authMethods, updatePet.authMethods);
+        Assert.assertNotSame(addPet.authMethods.get(0), updatePet.authMethods.get(0));
+        Assert.assertEquals(addPet.authMethods.get(0).scopes.size(), 2);
+    }
+
+    @Test
+    public void testSecurityRequirementsWithSchemesInAnotherOrderAreConvertedSeparately() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        openAPI.getPaths().get("/pet").getPost().setSecurity(Collections.singletonList(
+                new SecurityRequirement().addList("petstore_auth", "write:pets").addList("api_key")));
+        openAPI.getPaths().get("/pet").getPut().setSecurity(Collections.singletonList(
+                new SecurityRequirement().addList("api_key").addList("petstore_auth", "write:pets")));
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        List<Map<String, SecurityScheme>> conversions = new ArrayList<>();
+        DefaultCodegen config = new DefaultCodegen() {
+            @Override
+            public List<CodegenSecurity> fromSecurity(Map<String, SecurityScheme> securitySchemeMap) {
+                conversions.add(securitySchemeMap);
+                return super.fromSecurity(securitySchemeMap);
+            }
+        };
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        generator.processPaths(openAPI.getPaths());
+
+        // the 3 requirements of petstore, and the 2 above
+        Assert.assertEquals(conversions.size(), 5);
+    }
+
+    @Test
+    public void testAuthMethodsAreNotSharedBetweenOperations() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        DefaultCodegen config = new DefaultCodegen();
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        Map<String, CodegenOperation> operations = new HashMap<>();
+        generator.processPaths(openAPI.getPaths()).values().forEach(ops -> ops.forEach(op -> operations.put(op.operationId, op)));
+
+        // addPet and updatePet require both scopes of petstore_auth, findPetsByStatus only one of them
+        CodegenSecurity addPet = operations.get("addPet").authMethods.get(0);
+        CodegenSecurity updatePet = operations.get("updatePet").authMethods.get(0);
+        CodegenSecurity findPetsByStatus = operations.get("findPetsByStatus").authMethods.get(0);
+        Assert.assertEquals(addPet.scopes.stream().map(scope -> scope.get("scope")).collect(Collectors.toList()),
+                Arrays.asList("write:pets", "read:pets"));
+        Assert.assertEquals(findPetsByStatus.scopes.stream().map(scope -> scope.get("scope")).collect(Collectors.toList()),
+                Collections.singletonList("read:pets"));
+
+        addPet.scopes.get(0).put("operation", "addPet");
+        addPet.scopes.remove(1);
+        addPet.vendorExtensions.put("x-operation", "addPet");
+        for (CodegenSecurity other : Arrays.asList(updatePet, findPetsByStatus)) {
+            Assert.assertFalse(other.vendorExtensions.containsKey("x-operation"));
+            other.scopes.forEach(scope -> Assert.assertFalse(scope.containsKey("operation")));
+        }
+        Assert.assertEquals(updatePet.scopes.size(), 2);
+    }
+
+    @Test
+    public void testNullAuthMethodsAreKept() {
+        OpenAPI openAPI = TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml");
+        ClientOptInput opts = new ClientOptInput();
+        opts.openAPI(openAPI);
+        DefaultCodegen config = new DefaultCodegen() {
+            @Override
+            public List<CodegenSecurity> fromSecurity(Map<String, SecurityScheme> securitySchemeMap) {
+                return null;
+            }
+        };
+        config.setStrictSpecBehavior(false);
+        opts.config(config);
+        DefaultGenerator generator = new DefaultGenerator();
+        generator.opts(opts);
+        generator.configureGeneratorProperties();
+
+        List<CodegenOperation> operations = new ArrayList<>();
+        generator.processPaths(openAPI.getPaths()).values().forEach(operations::addAll);
+
+        for (String operationId : Arrays.asList("addPet", "updatePet")) {
+            CodegenOperation operation = operations.stream().filter(op -> operationId.equals(op.operationId)).findFirst().get();
+            Assert.assertTrue(operation.hasAuthMethods, operationId);
+            Assert.assertNull(operation.authMethods, operationId);
+        }
+    }
+
+    @Test
+    public void testTemplateVariableAnalysisIsOptIn() throws IOException {
+        Path target = Files.createTempDirectory("test");
+        try {
+            CodegenConfigurator configurator = new CodegenConfigurator()
+                    .setGeneratorName("java")
+                    .setInputSpec("src/test/resources/3_0/petstore.yaml")
+                    .setOutputDir(target.toAbsolutePath().toString());
+            ClientOptInput input = configurator.toClientOptInput();
+            new DefaultGenerator().opts(input).generate();
+            Assert.assertSame(input.getConfig().getTemplateVariableUsage(), TemplateVariableUsage.ALL);
+
+            ClientOptInput analyzed = configurator.addGlobalProperty("templateVariableAnalysis", "true").toClientOptInput();
+            new DefaultGenerator().opts(analyzed).generate();
+            Assert.assertNotSame(analyzed.getConfig().getTemplateVariableUsage(), TemplateVariableUsage.ALL);
+        } finally {
+            GlobalSettings.reset();
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
+    @Test
+    public void testMemoryBudgetDoesNotChangeOutput() throws IOException {
+        // a budget of 1 byte is exceeded right away, so everything which can be released early is
+        assertSameOutput("java", "src/test/resources/3_0/petstore.yaml", CodegenConstants.MEMORY_BUDGET, "1");
+    }
+
+    @Test
+    public void testMemoryBudgetWithUnmodifiableProcessedModels() throws IOException {
+        Path output = Files.createTempDirectory("test");
+        try {
+            JavaClientCodegen config = new JavaClientCodegen() {
+                @Override
+                public Map<String, ModelsMap> postProcessAllModels(Map<String, ModelsMap> objs) {
+                    return Collections.unmodifiableMap(super.postProcessAllModels(objs));
+                }
+            };
+            config.setOutputDir(output.toAbsolutePath().toString());
+            ClientOptInput opts = new ClientOptInput()
+                    .openAPI(TestUtils.parseFlattenSpec("src/test/resources/3_0/petstore.yaml"))
+                    .config(config);
+            GlobalSettings.setProperty(CodegenConstants.MEMORY_BUDGET, "1");
+
+            new DefaultGenerator().opts(opts).generate();
+
+            Assert.assertTrue(Files.exists(output.resolve("src/main/java/org/openapitools/client/model/Pet.java")));
+        } finally {
+            GlobalSettings.reset();
+            FileUtils.deleteDirectory(output.toFile());
+        }
+    }
+
+    @DataProvider(name = "compactModelsGenerators")
+    public static Object[][] compactModelsGenerators() {
+        return new Object[][]{{"java"}, {"spring"}, {"kotlin-spring"}, {"aspnetcore"}, {"go"}, {"ruby"}, {"python"},
+                {"typescript-axios"}, {"ocaml"}};
+    }
+
+    @Test(dataProvider = "compactModelsGenerators")
+    public void testCompactModelsDoesNotChangeOutput(String generatorName) throws IOException {
+        assertSameOutput(generatorName, "src/test/resources/3_0/petstore-with-fake-endpoints-models-for-testing.yaml",
+                CodegenConstants.COMPACT_MODELS, "true");
+    }
+
     @Test
     public void testProcessUserDefinedTemplatesWithConfig() throws IOException {
         Path target = Files.createTempDirectory("test");
@@ -175,6 +175,57 @@ public class OpenAPINormalizerTest {
     }
 
 
+    @Test
+    public void testOpenAPINormalizerRemoveAnyOfOneOfAndKeepPropertiesOnlyWithNestedProperties() {
+        OpenAPI openAPI = TestUtils.parseSpec("src/test/resources/3_0/simplifyNestedOneOfAnyOf_test.yaml");
+
+        Schema schema = openAPI.getComponents().getSchemas().get("Person");
+        assertEquals(schema.getAnyOf().size(), 2);
+
+        Map<String, String> options = new HashMap<>();
+        options.put("REMOVE_ANYOF_ONEOF_AND_KEEP_PROPERTIES_ONLY", "true");
+        options.put("SIMPLIFY_ONEOF_ANYOF", "true");
+        OpenAPINormalizer openAPINormalizer = new OpenAPINormalizer(openAPI, options);
+        openAPINormalizer.normalize();
+
+        Schema schema2 = openAPI.getComponents().getSchemas().get("Person");
+        assertNull(schema2.getAnyOf());
+        Schema nickName = (Schema) schema2.getProperties().get("nickName");
+        assertNull(nickName.getOneOf());
+        assertTrue(nickName instanceof StringSchema);
+        assertTrue(nickName.getNullable());
+        Schema street = (Schema) ((Schema) schema2.getProperties().get("address")).getProperties().get("street");
+        assertNull(street.getAnyOf());
+        assertTrue(street instanceof StringSchema);
+        assertTrue(street.getNullable());
+    }
+
+    @Test
+    public void testOpenAPINormalizerSimplifyOneOfAnyOfWithNestedProperties() {
+        OpenAPI openAPI = TestUtils.parseSpec("src/test/resources/3_0/simplifyNestedOneOfAnyOf_test.yaml");
+
+        Schema schema = openAPI.getComponents().getSchemas().get("Pet");
+        assertEquals(schema.getOneOf().size(), 2);
+
+        Map<String, String> options = new HashMap<>();
+        options.put("SIMPLIFY_ONEOF_ANYOF", "true");
+        OpenAPINormalizer openAPINormalizer = new OpenAPINormalizer(openAPI, options);
+        openAPINormalizer.normalize();
+
+        Schema schema2 = openAPI.getComponents().getSchemas().get("Pet");
+        assertNull(schema2.getOneOf());
+        assertTrue(schema2 instanceof ObjectSchema);
+        assertTrue(schema2.getNullable());
+        Schema name = (Schema) schema2.getProperties().get("name");
+        assertNull(name.getAnyOf());
+        assertTrue(name instanceof StringSchema);
+        assertTrue(name.getNullable());
+        Schema nickName = (Schema) ((Schema) schema2.getProperties().get("owner")).getProperties().get("nickName");
+        assertNull(nickName.getOneOf());
+        assertTrue(nickName instanceof StringSchema);
+        assertTrue(nickName.getNullable());
+    }
+
     @Test
     public void testOpenAPINormalizerSimplifyOneOfAnyOfStringAndEnumString() {
         // to test the rule SIMPLIFY_ONEOF_ANYOF_STRING_AND_ENUM_STRING
@@ -1,5 +1,6 @@
 package org.openapitools.codegen;
 
+import org.apache.commons.io.FileUtils;
 import org.openapitools.codegen.api.TemplatePathLocator;
 import org.openapitools.codegen.templating.HandlebarsEngineAdapter;
 import org.openapitools.codegen.templating.MustacheEngineAdapter;
@@ -186,6 +187,23 @@ public class TemplateManagerTest {
         }
     }
 
+    @Test
+    public void writesStreamedContents() throws IOException {
+        TemplateManagerOptions opts = new TemplateManagerOptions(true, false);
+        TemplateManager manager = new TemplateManager(opts, mustacheEngineAdapter, new TemplatePathLocator[]{locator});
+
+        Path target = Files.createTempDirectory("test-templatemanager");
+        try {
+            File output = new File(target.toFile(), "nested/streamed.txt");
+            File written = manager.writeToFile(output.getPath(), out -> out.write("streamed".getBytes(StandardCharsets.UTF_8)));
+
+            assertEquals(Files.readAllLines(written.toPath()).get(0), "streamed");
+            assertFalse(new File(output.getPath() + ".tmp").exists());
+        } finally {
+            FileUtils.deleteDirectory(target.toFile());
+        }
+    }
+
     @Test
     public void overwritesWhenSkipOverwriteFalse() throws IOException {
         TemplateManagerOptions opts = new TemplateManagerOptions(false, false);
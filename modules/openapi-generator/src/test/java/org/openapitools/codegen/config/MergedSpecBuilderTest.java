@@ -8,10 +8,12 @@ import org.openapitools.codegen.ClientOptInput;
 import org.openapitools.codegen.DefaultGenerator;
 import org.openapitools.codegen.java.assertions.JavaFileAssert;
 import org.openapitools.codegen.languages.SpringCodegen;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Map;
@@ -32,6 +34,48 @@ public class MergedSpecBuilderTest {
         mergeSpecs("json");
     }
 
+    @Test
+    public void shouldIgnoreFilesWhichAreNotSpecs() throws IOException {
+        File output = Files.createTempDirectory("spec-directory").toFile().getCanonicalFile();
+        output.deleteOnExit();
+
+        Files.copy(Paths.get("src/test/resources/bugs/mergerTest/spec1.yaml"), output.toPath().resolve("spec1.yaml"));
+        Files.copy(Paths.get("src/test/resources/bugs/mergerTest/spec2.yaml"), output.toPath().resolve("spec2.yaml"));
+        Files.write(output.toPath().resolve("README.md"), "# not a spec".getBytes(StandardCharsets.UTF_8));
+
+        String mergedSpec = new MergedSpecBuilder(output.getAbsolutePath(), "_merged_file")
+                .buildMergedSpec();
+
+        OpenAPI openAPI = new OpenAPIParser().readLocation(mergedSpec, null, new ParseOptions()).getOpenAPI();
+        Assert.assertEquals(openAPI.getPaths().size(), 3);
+    }
+
+    @Test
+    public void shouldKeepDefaultServerOfSpecsWithoutServers() throws IOException {
+        File output = Files.createTempDirectory("spec-directory").toFile().getCanonicalFile();
+        output.deleteOnExit();
+
+        Files.write(output.toPath().resolve("spec.yaml"), String.join("\n",
+                "openapi: 3.0.1",
+                "info:",
+                "  title: no servers",
+                "  version: 1.0.0",
+                "paths:",
+                "  /ping:",
+                "    get:",
+                "      responses:",
+                "        '200':",
+                "          description: OK",
+                "").getBytes(StandardCharsets.UTF_8));
+
+        String mergedSpec = new MergedSpecBuilder(output.getAbsolutePath(), "_merged_file")
+                .buildMergedSpec();
+
+        OpenAPI openAPI = new OpenAPIParser().readLocation(mergedSpec, null, new ParseOptions()).getOpenAPI();
+        Assert.assertEquals(openAPI.getServers().size(), 1);
+        Assert.assertEquals(openAPI.getServers().get(0).getUrl(), "/");
+    }
+
     private void mergeSpecs(String fileExt) throws IOException {
         File output = Files.createTempDirectory("spec-directory").toFile().getCanonicalFile();
         output.deleteOnExit();
@@ -0,0 +1,128 @@
+package org.openapitools.codegen.config;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.core.models.ParseOptions;
+import org.apache.commons.io.FileUtils;
+import org.openapitools.codegen.CodegenConstants;
+import org.openapitools.codegen.utils.ModelUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class SpecSnapshotCacheTest {
+
+    @AfterMethod
+    public void tearDown() {
+        GlobalSettings.reset();
+    }
+
+    @Test
+    public void testStoresAndLoadsSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("spec-snapshot");
+        dir.toFile().deleteOnExit();
+        FileUtils.copyDirectory(new File("src/test/resources/3_0/external-refs"), dir.resolve("spec").toFile());
+        String inputSpec = dir.resolve("spec/echo_api.yaml").toString();
+        GlobalSettings.setProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, dir.resolve("cache").toString());
+
+        SpecSnapshotCache cache = snapshotCache(inputSpec);
+        assertNotNull(cache);
+        assertNull(cache.load());
+        assertFalse(cache.isLoaded());
+
+        OpenAPI openAPI = cache.parse();
+        cache.store("rules", openAPI);
+
+        SpecSnapshotCache reloaded = snapshotCache(inputSpec);
+        OpenAPI snapshot = reloaded.load();
+        assertNotNull(snapshot);
+        assertTrue(reloaded.isProcessed("rules"));
+        assertTrue(reloaded.isProcessedWithOtherSettings("other rules"));
+        assertEquals(snapshot.getComponents().getSchemas().keySet(), openAPI.getComponents().getSchemas().keySet());
+        assertEquals(snapshot.getPaths().keySet(), openAPI.getPaths().keySet());
+
+        // changing a referenced file invalidates the snapshot
+        Files.write(dir.resolve("spec/components/schemas/StringEnumRef.yaml"), "\n# changed\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertNull(snapshotCache(inputSpec).load());
+    }
+
+    @Test
+    public void testKeyDoesNotDependOnPreviousGenerations() throws IOException {
+        Path dir = Files.createTempDirectory("spec-snapshot");
+        dir.toFile().deleteOnExit();
+        String inputSpec = new File("src/test/resources/3_0/petstore.yaml").getAbsolutePath();
+        GlobalSettings.setProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, dir.toString());
+
+        SpecSnapshotCache cache = snapshotCache(inputSpec);
+        cache.store("rules", cache.parse());
+
+        // set by the generator of a previous generation, reset by tearDown
+        ModelUtils.setGenerateAliasAsModel(true);
+        ModelUtils.setDisallowAdditionalPropertiesIfNotPresent(false);
+        assertNotNull(snapshotCache(inputSpec).load());
+
+        WorkflowSettings aliasAsModel = WorkflowSettings.newBuilder().withGenerateAliasAsModel(true).build();
+        assertNull(snapshotCache(inputSpec, aliasAsModel, SpecLoader.DEFAULT).load());
+    }
+
+    @Test
+    public void testParsesWithSpecLoader() throws IOException {
+        Path dir = Files.createTempDirectory("spec-snapshot");
+        dir.toFile().deleteOnExit();
+        String inputSpec = new File("src/test/resources/3_0/petstore.yaml").getAbsolutePath();
+        GlobalSettings.setProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, dir.toString());
+        List<String> loaded = new ArrayList<>();
+        SpecLoader specLoader = (location, authorizationValues, options) -> {
+            loaded.add(location);
+            return SpecLoader.DEFAULT.load(location, authorizationValues, options);
+        };
+
+        assertNotNull(snapshotCache(inputSpec, WorkflowSettings.newBuilder().build(), specLoader).parse());
+        assertEquals(loaded, Collections.singletonList(inputSpec));
+    }
+
+    @Test
+    public void testRemoteSpecIsNotCached() {
+        GlobalSettings.setProperty(CodegenConstants.SPEC_SNAPSHOT_CACHE, "target/spec-snapshots");
+
+        assertNull(snapshotCache("https://example.com/openapi.yaml"));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertNull(snapshotCache("src/test/resources/3_0/petstore.yaml"));
+    }
+
+    @Test
+    public void testOpenApi31IsNotProcessable() {
+        ParseOptions options = new ParseOptions();
+        assertTrue(SpecSnapshotCache.isProcessable(new OpenAPIParser()
+                .readLocation("src/test/resources/3_0/petstore.yaml", null, options).getOpenAPI()));
+        assertFalse(SpecSnapshotCache.isProcessable(new OpenAPIParser()
+                .readLocation("src/test/resources/3_1/petstore.yaml", null, options).getOpenAPI()));
+    }
+
+    private static SpecSnapshotCache snapshotCache(String inputSpec) {
+        return snapshotCache(inputSpec, WorkflowSettings.newBuilder().build(), SpecLoader.DEFAULT);
+    }
+
+    private static SpecSnapshotCache snapshotCache(String inputSpec, WorkflowSettings workflowSettings, SpecLoader specLoader) {
+        ParseOptions options = new ParseOptions();
+        options.setResolve(true);
+        options.setResolveResponses(true);
+        GeneratorSettings settings = GeneratorSettings.newBuilder().withGeneratorName("java").build();
+        return SpecSnapshotCache.forSpec(inputSpec, null, options, settings, workflowSettings, specLoader);
+    }
+}
@@ -11,6 +11,9 @@ import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.tags.Tag;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 
@@ -135,6 +138,23 @@ public class SerializerUtilsTest {
         assertEquals(content, expected);
     }
 
+    @Test
+    public void testStreamingMatchesStrings() throws Exception {
+        OpenAPI openAPI = createCompleteExample();
+
+        StringWriter yaml = new StringWriter();
+        SerializerUtils.writeYaml(openAPI, yaml);
+        assertEquals(yaml.toString(), SerializerUtils.toYamlString(openAPI));
+
+        StringWriter json = new StringWriter();
+        SerializerUtils.writeJson(openAPI, json);
+        assertEquals(json.toString(), SerializerUtils.toJsonString(openAPI));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SerializerUtils.writeJson(openAPI, bytes);
+        assertEquals(bytes.toString(StandardCharsets.UTF_8.name()), SerializerUtils.toJsonString(openAPI));
+    }
+
     private OpenAPI createCompleteExample() {
         OpenAPI openAPI = new OpenAPI();
         openAPI.setInfo(new Info().title("Some title").description("Some description"));
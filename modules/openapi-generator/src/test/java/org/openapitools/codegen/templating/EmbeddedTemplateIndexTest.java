@@ -0,0 +1,97 @@
+package org.openapitools.codegen.templating;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class EmbeddedTemplateIndexTest {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Path root = Files.createTempDirectory("test");
+        try {
+            Files.createDirectories(root.resolve("Java/libraries/native"));
+            Files.write(root.resolve("Java/model.mustache"), "{{classname}}".getBytes(StandardCharsets.UTF_8));
+            Files.write(root.resolve("Java/libraries/native/api.mustache"), "{{classname}}".getBytes(StandardCharsets.UTF_8));
+            Files.createDirectories(root.resolve("org/openapitools"));
+            Files.write(root.resolve("org/openapitools/Generator.class"), new byte[]{0});
+
+            StringWriter written = new StringWriter();
+            EmbeddedTemplateIndex.write(root, written);
+            EmbeddedTemplateIndex index = EmbeddedTemplateIndex.read(new StringReader(written.toString()));
+
+            assertTrue(index.covers("Java/api.mustache"));
+            assertTrue(index.contains("Java/model.mustache"));
+            assertTrue(index.contains("Java/libraries/native/api.mustache"));
+            assertFalse(index.contains("Java/libraries/native/model.mustache"));
+            // classes and directories without resources are left to the class loader
+            assertFalse(index.covers("org/openapitools/Generator.class"));
+            assertFalse(index.covers("custom/model.mustache"));
+            assertFalse(index.covers("Java//model.mustache"));
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testOnlyUsedForDirectoriesOfASingleClasspathRoot() throws IOException {
+        Path root = Files.createTempDirectory("test");
+        try {
+            // the generator jar, with its index
+            Path jar = root.resolve("generator.jar");
+            StringWriter index = new StringWriter();
+            Path classes = Files.createDirectories(root.resolve("classes/Java"));
+            Files.write(classes.resolve("model.mustache"), "{{classname}}".getBytes(StandardCharsets.UTF_8));
+            EmbeddedTemplateIndex.write(root.resolve("classes"), index);
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                out.putNextEntry(new JarEntry("Java/"));
+                out.putNextEntry(new JarEntry("Java/model.mustache"));
+                out.write("{{classname}}".getBytes(StandardCharsets.UTF_8));
+                out.putNextEntry(new JarEntry(EmbeddedTemplateIndex.RESOURCE));
+                out.write(index.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            // a second classpath root adding a library to the same directory
+            Path custom = Files.createDirectories(root.resolve("custom/Java/libraries/custom"));
+            Files.write(custom.resolve("api.mustache"), "{{classname}}".getBytes(StandardCharsets.UTF_8));
+
+            try (URLClassLoader single = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+                EmbeddedTemplateIndex embedded = EmbeddedTemplateIndex.load(single);
+                assertNotNull(embedded);
+                assertTrue(embedded.covers("Java/libraries/custom/api.mustache"));
+                assertTrue(embedded.exists("Java/model.mustache"));
+                assertFalse(embedded.exists("Java/libraries/custom/api.mustache"));
+            }
+            try (URLClassLoader both = new URLClassLoader(
+                    new URL[]{jar.toUri().toURL(), root.resolve("custom").toUri().toURL()}, null)) {
+                EmbeddedTemplateIndex embedded = EmbeddedTemplateIndex.load(both);
+                assertNotNull(embedded);
+                assertFalse(embedded.covers("Java/libraries/custom/api.mustache"));
+                assertTrue(embedded.exists("Java/model.mustache"));
+                assertTrue(embedded.exists("Java/libraries/custom/api.mustache"));
+                assertFalse(embedded.exists("Java/libraries/custom/model.mustache"));
+            }
+        } finally {
+            FileUtils.deleteDirectory(root.toFile());
+        }
+    }
+
+    @Test
+    public void testFallsBackToClassLoaderOutsideOfJar() {
+        assertTrue(EmbeddedTemplateIndex.resourceExists("Java/model.mustache"));
+        assertFalse(EmbeddedTemplateIndex.resourceExists("Java/missing.mustache"));
+    }
+}
@@ -6,6 +6,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
@@ -54,6 +55,24 @@ public class HandlebarsEngineAdapterTest {
         assertEquals(generatedFile, "Contents: 'Specific contents'");
     }
 
+    @Test(description = "partials are loaded once per executor, however often they are included")
+    public void testPartialTemplatesAreLoadedOnce() throws IOException {
+        // Given
+        HandlebarsEngineAdapter adapter = new HandlebarsEngineAdapter();
+        TemplatingExecutor executorMock = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executorMock.getFullTemplateContents("outerTemplate.hbs")).thenReturn("{{#each items}}{{>innerTemplate}}{{/each}}");
+        Mockito.when(executorMock.getFullTemplateContents("innerTemplate.hbs")).thenReturn("[{{this}}]");
+
+        // When
+        String first = adapter.compileTemplate(executorMock, Map.of("items", List.of("a", "b", "c")), "outerTemplate.hbs");
+        String second = adapter.compileTemplate(executorMock, Map.of("items", List.of("d")), "outerTemplate.hbs");
+
+        // Then
+        assertEquals(first, "[a][b][c]");
+        assertEquals(second, "[d]");
+        Mockito.verify(executorMock, Mockito.times(1)).getFullTemplateContents("innerTemplate.hbs");
+    }
+
     @Test(description = "should prioritize public getters over breaking encapsulation")
     public void testResolverPriority() throws IOException {
         // Given
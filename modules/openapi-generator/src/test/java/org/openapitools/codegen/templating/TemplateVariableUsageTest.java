@@ -0,0 +1,74 @@
+package org.openapitools.codegen.templating;
+
+import org.mockito.Mockito;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TemplateVariableUsageTest {
+
+    @Test
+    public void testCollectsNamesFromTemplatesAndPartials() {
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executor.getFullTemplateContents("model.mustache"))
+                .thenReturn("{{#models}}{{#model}}{{classname}}{{>model_vars}}{{/model}}{{/models}}{{! jsonSchema }}");
+        Mockito.when(executor.getFullTemplateContents("model_vars.mustache"))
+                .thenReturn("{{#vars}}{{{dataType}}} {{#lambda.camelcase}}{{name}}{{/lambda.camelcase}}{{/vars}}");
+
+        TemplateVariableUsage usage = TemplateVariableUsage.analyze(executor, new MustacheEngineAdapter(),
+                List.of(), null, List.of("model.mustache"));
+
+        assertTrue(usage.isReferenced("classname"));
+        assertTrue(usage.isReferenced("dataType"));
+        assertTrue(usage.isReferenced("name"));
+        assertTrue(usage.isReferenced("camelcase"));
+        assertFalse(usage.isReferenced("jsonSchema"), "comments must not count as references");
+        assertFalse(usage.isReferenced("modelJson"));
+    }
+
+    @Test
+    public void testHandlebarsPartials() {
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executor.getFullTemplateContents("api.handlebars"))
+                .thenReturn("{{#each operations}}{{> \"operation\" op=this}}{{/each}}");
+        Mockito.when(executor.getFullTemplateContents("operation.handlebars"))
+                .thenReturn("{{#if op.hasParams}}{{op.jsonSchema}}{{/if}}");
+
+        TemplateVariableUsage usage = TemplateVariableUsage.analyze(executor, new HandlebarsEngineAdapter(),
+                List.of(), null, List.of("api.mustache"));
+
+        assertTrue(usage.isReferenced("hasParams"));
+        assertTrue(usage.isReferenced("jsonSchema"));
+        assertFalse(usage.isReferenced("modelJson"));
+    }
+
+    @Test
+    public void testUnanalyzableTemplatesReferenceEverything() {
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+        Mockito.when(executor.getFullTemplateContents("custom.mustache")).thenReturn("{{=<% %>=}}<% jsonSchema %>");
+        Mockito.when(executor.getFullTemplateContents("dump.handlebars")).thenReturn("{{json this}}");
+
+        assertTrue(TemplateVariableUsage.analyze(executor, new MustacheEngineAdapter(), List.of(), null, List.of("custom.mustache"))
+                .isReferenced("jsonSchema"));
+        assertTrue(TemplateVariableUsage.analyze(executor, new HandlebarsEngineAdapter(), List.of(), null, List.of("dump.handlebars"))
+                .isReferenced("jsonSchema"));
+        assertTrue(TemplateVariableUsage.analyze(executor, new MustacheEngineAdapter(), List.of("does/not/exist"), null, List.of())
+                .isReferenced("jsonSchema"));
+    }
+
+    @Test
+    public void testScansEmbeddedTemplateDirectories() {
+        TemplatingExecutor executor = Mockito.mock(TemplatingExecutor.class);
+
+        TemplateVariableUsage java = TemplateVariableUsage.analyze(executor, new MustacheEngineAdapter(), List.of("Java"), "native", List.of());
+        assertTrue(java.isReferenced("classname"));
+        assertFalse(java.isReferenced("jsonSchema"));
+
+        TemplateVariableUsage html = TemplateVariableUsage.analyze(executor, new MustacheEngineAdapter(), List.of("htmlDocs2"), null, List.of());
+        assertTrue(html.isReferenced("jsonSchema"));
+    }
+}
@@ -0,0 +1,39 @@
+package org.openapitools.codegen.templating.mustache;
+
+import com.samskivert.mustache.Mustache;
+import org.openapitools.codegen.CodegenProperty;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public class SharedFetcherCollectorTest {
+
+    @Test
+    public void testFetchersAreResolvedOnceForAllTemplates() {
+        AtomicInteger resolved = new AtomicInteger();
+        SharedFetcherCollector collector = new SharedFetcherCollector() {
+            @Override
+            public Mustache.VariableFetcher createFetcher(Object ctx, String name) {
+                resolved.incrementAndGet();
+                return super.createFetcher(ctx, name);
+            }
+        };
+        Mustache.Compiler compiler = Mustache.compiler().withCollector(collector);
+
+        CodegenProperty id = new CodegenProperty();
+        id.name = "id";
+        id.required = true;
+        CodegenProperty name = new CodegenProperty();
+        name.name = "name";
+        Map<String, Object> ctx = Map.of("vars", List.of(id, name));
+
+        assertEquals(compiler.compile("{{#vars}}{{name}}{{#required}}!{{/required}} {{/vars}}").execute(ctx), "id! name ");
+        int resolvedByFirstTemplate = resolved.get();
+        assertEquals(compiler.compile("{{#vars}}[{{name}}{{#required}}*{{/required}}]{{/vars}}").execute(ctx), "[id*][name]");
+        assertEquals(resolved.get(), resolvedByFirstTemplate);
+    }
+}
@@ -0,0 +1,105 @@
+package org.openapitools.codegen.templating.mustache;
+
+import com.samskivert.mustache.Mustache;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+public class StreamingLambdaTest extends LambdaTest {
+
+    // line breaks and whitespace as matched by \s, \R, String.trim and Character.isWhitespace, and a few which aren't
+    private static final char[] ALPHABET = {'a', 'b', ' ', '\t', '\n', '\r', '\u000B', '\f', '\u001F', '\u0085', '\u00A0', '\u2003', '\u2028'};
+
+    @Test
+    public void trimLineBreaksTest() {
+        Map<String, Object> ctx = context("trimLineBreaks", new TrimLineBreaksLambda());
+
+        test("a\n\nb\nc\n\n", "{{#trimLineBreaks}}a\n\n\n\nb\nc\n\n\n{{/trimLineBreaks}}", ctx);
+    }
+
+    @Test
+    public void trimTrailingWhitespaceTest() {
+        Map<String, Object> ctx = context("trimTrailing", new TrimTrailingWhiteSpaceLambda(true));
+
+        test("a \n b\n", "{{#trimTrailing}}a \n b \t\n\n {{/trimTrailing}}", ctx);
+    }
+
+    @Test
+    public void prefixWithHashTest() {
+        Map<String, Object> ctx = context("prefixWithHash", new PrefixWithHashLambda());
+
+        test("a\n# b\n# c\n#", "{{#prefixWithHash}}a\r\n b\r c\n{{/prefixWithHash}}", ctx);
+    }
+
+    @Test
+    public void nestedLambdasTest() {
+        Map<String, Object> ctx = context(
+                "indented", new IndentedLambda(),
+                "trimTrailing", new TrimTrailingWhiteSpaceLambda(false),
+                "trimLineBreaks", new TrimLineBreaksLambda(),
+                "name", "Pet");
+
+        test("class Pet {\n    int id;\n    \n    String name;",
+                "{{#trimTrailing}}{{#indented}}{{#trimLineBreaks}}class {{name}} {\nint id;\n\n\n\nString name;  \n{{/trimLineBreaks}}{{/indented}}{{/trimTrailing}}",
+                ctx);
+    }
+
+    @Test
+    public void randomInputTest() {
+        // the previous implementations, which rendered the whole fragment to a string first
+        Map<Mustache.Lambda, Function<String, String>> lambdas = new LinkedHashMap<>();
+        lambdas.put(new IndentedLambda(), text -> indent(text, "    ", null, false, false));
+        lambdas.put(new IndentedLambda(2, "\t", "// ", true, true), text -> indent(text, "\t\t", "// ", true, true));
+        lambdas.put(new TrimWhitespaceLambda(), text -> text.replaceAll("\\s+", " "));
+        lambdas.put(new TrimLineBreaksLambda(), text -> text.replaceAll("\n\n+", "\n\n"));
+        lambdas.put(new TrimTrailingWhiteSpaceLambda(true), text -> text.stripTrailing() + "\n");
+        lambdas.put(new TrimTrailingWhiteSpaceLambda(false), String::stripTrailing);
+        lambdas.put(new PrefixWithHashLambda(), text -> text.replaceAll("\\R", "\n#"));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int length = random.nextInt(40); text.length() < length; ) {
+                text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            // each chunk is written to the lambda's writer separately, e.g. splitting \r\n
+            List<String> chunks = new ArrayList<>();
+            for (int start = 0; start < text.length(); ) {
+                int end = Math.min(text.length(), start + 1 + random.nextInt(5));
+                chunks.add(text.substring(start, end));
+                start = end;
+            }
+
+            for (Map.Entry<Mustache.Lambda, Function<String, String>> lambda : lambdas.entrySet()) {
+                test(lambda.getValue().apply(text.toString()), "{{#lambda}}{{#chunks}}{{{.}}}{{/chunks}}{{/lambda}}",
+                        context("lambda", lambda.getKey(), "chunks", chunks));
+            }
+        }
+    }
+
+    private static String indent(String text, String indention, String prefix, boolean indentFirstLine, boolean skipEmptyLines) {
+        if (text.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        String[] lines = text.split("\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (indentFirstLine || i > 0) {
+                if (!skipEmptyLines || lines[i].trim().length() > 0) {
+                    sb.append(indention);
+                }
+                if (prefix != null) sb.append(prefix);
+            }
+            sb.append(lines[i]);
+            if (i < lines.length - 1) {
+                sb.append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
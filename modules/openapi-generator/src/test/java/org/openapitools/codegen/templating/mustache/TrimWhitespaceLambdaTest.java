@@ -27,8 +27,10 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.testng.Assert.assertEquals;
 
 public class TrimWhitespaceLambdaTest {
@@ -48,7 +50,10 @@ public class TrimWhitespaceLambdaTest {
 
     @Test
     public void testTrimWhitespace() throws IOException {
-        when(fragment.execute()).thenReturn("\t a  b\t\tc \t");
+        doAnswer(invocation -> {
+            invocation.<Writer>getArgument(0).write("\t a  b\t\tc \t");
+            return null;
+        }).when(fragment).execute(any(Writer.class));
 
         StringWriter output = new StringWriter();
         new TrimWhitespaceLambda().execute(fragment, output);
@@ -0,0 +1,107 @@
+package org.openapitools.codegen.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GenerationExecutorTest {
+
+    @Test
+    public void testScopeCollectsOutcomes() throws Exception {
+        try (GenerationExecutor executor = GenerationExecutor.create(true, 2);
+             GenerationExecutor.Scope<String> scope = executor.scope(false)) {
+            GenerationExecutor.Subtask<String> ok = scope.fork(() -> "ok", null);
+            GenerationExecutor.Subtask<String> failed = scope.fork(() -> {
+                throw new IllegalStateException("broken");
+            }, null);
+            GenerationExecutor.Subtask<String> slow = scope.fork(() -> {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return "late";
+            }, Duration.ofMillis(100));
+
+            scope.join();
+
+            Assert.assertEquals(ok.state(), GenerationExecutor.Subtask.State.SUCCESS);
+            Assert.assertEquals(ok.get(), "ok");
+            Assert.assertEquals(failed.state(), GenerationExecutor.Subtask.State.FAILED);
+            Assert.assertTrue(failed.exception() instanceof IllegalStateException);
+            Assert.assertEquals(slow.state(), GenerationExecutor.Subtask.State.TIMED_OUT);
+            Assert.assertFalse(scope.isShutdown());
+        }
+    }
+
+    @Test
+    public void testFailureCancelsScope() throws Exception {
+        try (GenerationExecutor executor = GenerationExecutor.create(false, 2);
+             GenerationExecutor.Scope<String> scope = executor.scope(true)) {
+            CountDownLatch started = new CountDownLatch(1);
+            GenerationExecutor.Subtask<String> blocked = scope.fork(() -> {
+                started.countDown();
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return "late";
+            }, null);
+            started.await();
+            GenerationExecutor.Subtask<String> failed = scope.fork(() -> {
+                throw new IllegalStateException("broken");
+            }, null);
+
+            scope.join();
+
+            Assert.assertFalse(executor.usesVirtualThreads());
+            Assert.assertEquals(failed.state(), GenerationExecutor.Subtask.State.FAILED);
+            Assert.assertEquals(blocked.state(), GenerationExecutor.Subtask.State.CANCELLED);
+            Assert.assertTrue(scope.isShutdown());
+            Assert.assertEquals(scope.fork(() -> "after", null).state(), GenerationExecutor.Subtask.State.CANCELLED);
+        }
+    }
+
+    @Test
+    public void testCpuBoundStagesAreLimitedToCores() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (GenerationExecutor executor = GenerationExecutor.create(true, 4 * cores);
+             GenerationExecutor.Scope<Void> scope = executor.scope(false)) {
+            List<GenerationExecutor.Subtask<Void>> subtasks = new ArrayList<>();
+            for (int i = 0; i < 4 * cores; i++) {
+                subtasks.add(scope.fork(() -> executor.cpuBound(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return null;
+                }), null));
+            }
+            scope.join();
+            for (GenerationExecutor.Subtask<Void> subtask : subtasks) {
+                Assert.assertEquals(subtask.state(), GenerationExecutor.Subtask.State.SUCCESS);
+            }
+        }
+        Assert.assertTrue(peak.get() <= cores, "at most " + cores + " stages at a time, got " + peak.get());
+    }
+
+    @Test
+    public void testWaitingForCpuDoesNotCountTowardsTimeout() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        try (GenerationExecutor executor = GenerationExecutor.create(true, 8 * cores);
+             GenerationExecutor.Scope<Void> scope = executor.scope(false)) {
+            List<GenerationExecutor.Subtask<Void>> subtasks = new ArrayList<>();
+            // the last stages wait for about 8 x 50ms, more than the timeout, but each one runs for 50ms only
+            for (int i = 0; i < 8 * cores; i++) {
+                subtasks.add(scope.fork(() -> executor.cpuBound(() -> {
+                    Thread.sleep(50);
+                    return null;
+                }), Duration.ofMillis(250)));
+            }
+            scope.join();
+            for (GenerationExecutor.Subtask<Void> subtask : subtasks) {
+                Assert.assertEquals(subtask.state(), GenerationExecutor.Subtask.State.SUCCESS);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.openapitools.codegen.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MemoryBudgetTest {
+
+    @Test
+    public void testParseSize() {
+        Assert.assertEquals(MemoryBudget.parseSize(null), 0L);
+        Assert.assertEquals(MemoryBudget.parseSize(""), 0L);
+        Assert.assertEquals(MemoryBudget.parseSize("1000"), 1000L);
+        Assert.assertEquals(MemoryBudget.parseSize("4k"), 4096L);
+        Assert.assertEquals(MemoryBudget.parseSize("512M"), 512L * 1024 * 1024);
+        Assert.assertEquals(MemoryBudget.parseSize(" 2g "), 2L * 1024 * 1024 * 1024);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParseInvalidSize() {
+        MemoryBudget.parseSize("lots");
+    }
+
+    @Test
+    public void testBudgetStaysExceeded() {
+        AtomicLong heap = new AtomicLong(100);
+        MemoryBudget budget = new MemoryBudget(false, 1000, heap::get);
+        Assert.assertTrue(budget.isEnabled());
+
+        Assert.assertFalse(budget.sample("parse", Collections.emptyMap()));
+        heap.set(2000);
+        Assert.assertTrue(budget.sample("models", Collections.singletonMap("allModels", 3)));
+        heap.set(10);
+        Assert.assertTrue(budget.sample("APIs", Collections.emptyMap()));
+        Assert.assertTrue(budget.isExceeded());
+    }
+
+    @Test
+    public void testNone() {
+        Assert.assertFalse(MemoryBudget.NONE.isEnabled());
+        Assert.assertFalse(MemoryBudget.NONE.sample("parse", Collections.emptyMap()));
+        Assert.assertFalse(MemoryBudget.NONE.isExceeded());
+    }
+}